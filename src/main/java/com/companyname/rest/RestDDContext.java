@@ -1,72 +1,253 @@
 package com.companyname.rest;
 
 import com.companyname.config.props.ConfigLoader;
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.concurrent.RestExecutors;
 import com.companyname.rest.config.DefaultRestURLSupplier;
 import com.companyname.rest.config.RestConstants;
 import com.companyname.rest.data.DefaultDataParser;
 import com.companyname.rest.data.IDataParser;
+import com.companyname.rest.data.JsonDocumentCache;
 import com.companyname.rest.data.RestTestData;
 import com.companyname.rest.driver.Header;
 import com.companyname.rest.driver.HttpMethod;
 import com.companyname.rest.driver.IRequestSpec;
 import com.companyname.rest.driver.IResponse;
+import com.companyname.rest.driver.impl.HttpClientStreamingResponseImpl;
 import com.companyname.rest.driver.impl.RestAssuredRequestSpecImpl;
 import com.companyname.rest.driver.model.RestDDModel;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.Assert;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
-public class RestDDContext {
+/**
+ * Sends steps of one DD scenario. A context of a scenario with streaming steps has to be closed once the scenario ends,
+ * see {@link #close()}.
+ */
+public class RestDDContext implements AutoCloseable {
 
     private static final IDataParser parser = ConfigLoader.getClassInstance(IDataParser.class, DefaultDataParser.class, RestConstants.Properties.REST_PARSER_CLASS);
     private static final Logger LOG = LogManager.getLogger(RestDDContext.class);
+    private static final Pattern CACHE_REFERENCE_PATTERN = Pattern.compile("\\$<(cache|cache_headers):([^:>]+):");
+    private static final ExecutorService STEP_EXECUTOR = RestExecutors.newTaskExecutor("rest-dd-step-");
     protected static String baseUri = (String) ConfigLoader.getClassInstance(Supplier.class, DefaultRestURLSupplier.class, RestConstants.Properties.REST_URL_SUPPLIER_CLASS).get();
+    protected static boolean parallelSteps = PropertyReader.getProperty(RestConstants.Properties.DD_STEPS_PARALLEL, false);
 
     protected RestDDModel model;
-    protected Map<String, IRequestSpec> specMap = new LinkedHashMap<>();
-    protected Map<String, IResponse> responseMap = new LinkedHashMap<>();
-    protected Map<String, String> responseCache = new LinkedHashMap<>();
-    protected Map<String, List<Header>> headersCache = new LinkedHashMap<>();
+    protected Map<String, IRequestSpec> specMap = Collections.synchronizedMap(new LinkedHashMap<>());
+    protected Map<String, IResponse> responseMap = Collections.synchronizedMap(new LinkedHashMap<>());
+    protected Map<String, String> responseCache = Collections.synchronizedMap(new LinkedHashMap<>());
+    protected Map<String, List<Header>> headersCache = Collections.synchronizedMap(new LinkedHashMap<>());
+    protected JsonDocumentCache documentCache = new JsonDocumentCache();
+    private volatile Set<String> cacheReferences;
 
 
     public RestDDContext(RestDDModel model) {
         this.model = model;
     }
 
+    /**
+     * Sends the step. Response body is cached for $&lt;cache:...&gt; references of the following steps,
+     * except for a 'streaming' step, which body is read only by {@link IResponse#asInputStream()}.
+     * A streaming step referenced by $&lt;cache:...&gt; is sent buffered, as its body is needed by the cache.
+     */
     public IResponse send(RestDDModel.Step step) {
         RestDDModel.Step parsedStep = parseStepFromCache(step);
         LOG.info("'{}.{}' Step request is being sent.", model.getRelativeScenarioName(), step.getStepName());
         responseMap.put(step.getStepName(), getSpec(parsedStep).request(HttpMethod.valueOf(parsedStep.getRequest().getMethod().toUpperCase())));
         LOG.info("'{}.{}' Step response received.", model.getRelativeScenarioName(), step.getStepName());
         if (-1 != getStatusCode(step)) {
-            Assert.assertEquals(responseMap.get(step.getStepName()).getStatusCode(), getStatusCode(step),
-                    "Actual Status Code: '" + responseMap.get(step.getStepName()).getStatusCode() + "' doesn't match the expected one: '" + getStatusCode(step) + "'. Test execution stopped.");
+            try {
+                Assert.assertEquals(responseMap.get(step.getStepName()).getStatusCode(), getStatusCode(step),
+                        "Actual Status Code: '" + responseMap.get(step.getStepName()).getStatusCode() + "' doesn't match the expected one: '" + getStatusCode(step) + "'. Test execution stopped.");
+            } catch (AssertionError e) {
+                release(responseMap.get(step.getStepName()));
+                throw e;
+            }
+        }
+        if (!responseMap.get(step.getStepName()).isStreaming()) {
+            responseCache.put(step.getStepName(), responseMap.get(step.getStepName()).asString());
         }
-        responseCache.put(step.getStepName(), responseMap.get(step.getStepName()).asString());
         headersCache.put(step.getStepName(), responseMap.get(step.getStepName()).getHeadersAsList());
         return responseMap.get(step.getStepName());
     }
 
+    /**
+     * Sends all steps of the scenario. By default steps are sent one by one in the declared order.
+     * If <b>'dd.steps.parallel'</b> is enabled, steps are sent as soon as all steps they reference through
+     * $&lt;cache:...&gt; or $&lt;cache_headers:...&gt; are completed, so independent steps are sent concurrently.
+     * Once a step fails, steps which haven't started are not sent, as in the sequential mode,
+     * and the first failure is thrown when the steps in flight are completed.
+     *
+     * @return Responses by step name in the declared order
+     */
     public Map<String, IResponse> sendAll() {
         Map<String, RestDDModel.Step> steps = model.getSteps();
-        steps.keySet().forEach(s -> {
-            send(steps.get(s));
+        if (!parallelSteps || steps.size() < 2) {
+            steps.keySet().forEach(s -> {
+                send(steps.get(s));
+            });
+            return responseMap;
+        }
+        return sendAllByDependencies(steps);
+    }
+
+    protected Map<String, IResponse> sendAllByDependencies(Map<String, RestDDModel.Step> steps) {
+        Map<String, Set<String>> dependencies = getStepDependencies(steps);
+        Map<String, CompletableFuture<IResponse>> futures = new LinkedHashMap<>();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        steps.forEach((key, step) -> {
+            CompletableFuture<?>[] required = dependencies.get(key).stream().map(futures::get).toArray(CompletableFuture[]::new);
+            CompletableFuture<Void> ready = required.length == 0 ? CompletableFuture.completedFuture(null) : CompletableFuture.allOf(required);
+            futures.put(key, ready.thenApplyAsync(v -> {
+                if (firstFailure.get() != null) {
+                    return null;
+                }
+                try {
+                    return send(step);
+                } catch (RuntimeException | Error e) {
+                    firstFailure.compareAndSet(null, e);
+                    throw e;
+                }
+            }, STEP_EXECUTOR));
         });
+
+        for (CompletableFuture<IResponse> future : futures.values()) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                firstFailure.compareAndSet(null, e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        Throwable failure = firstFailure.get();
+
+        synchronized (responseMap) {
+            Map<String, IResponse> ordered = new LinkedHashMap<>();
+            steps.values().stream().map(RestDDModel.Step::getStepName).filter(responseMap::containsKey).forEach(name -> ordered.put(name, responseMap.get(name)));
+            responseMap.clear();
+            responseMap.putAll(ordered);
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
         return responseMap;
     }
 
+    /**
+     * Builds the step dependency graph from cache references. A step referencing an unknown or a following step
+     * depends on all previous steps, so it is sent the same way as in sequential mode.
+     * Values inherited from the global config are scanned as well.
+     *
+     * @return Step keys each step depends on
+     */
+    protected Map<String, Set<String>> getStepDependencies(Map<String, RestDDModel.Step> steps) {
+        Map<String, String> keysByStepName = new LinkedHashMap<>();
+        steps.forEach((key, step) -> keysByStepName.put(step.getStepName() != null ? step.getStepName() : key, key));
+
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        List<String> previous = new ArrayList<>();
+        steps.forEach((key, step) -> {
+            Set<String> stepDependencies = new LinkedHashSet<>();
+            Matcher matcher = CACHE_REFERENCE_PATTERN.matcher(getValues(step));
+            while (matcher.find()) {
+                String reference = keysByStepName.get(matcher.group(2).trim());
+                if (reference != null && previous.contains(reference)) {
+                    stepDependencies.add(reference);
+                } else {
+                    stepDependencies.addAll(previous);
+                }
+            }
+            dependencies.put(key, stepDependencies);
+            previous.add(key);
+        });
+        return dependencies;
+    }
+
+    /**
+     * @return Names of steps which response body is referenced by $&lt;cache:...&gt; in any step of the scenario
+     */
+    protected Set<String> getCacheReferences() {
+        Set<String> references = cacheReferences;
+        if (references == null) {
+            references = new LinkedHashSet<>();
+            for (RestDDModel.Step step : model.getSteps().values()) {
+                Matcher matcher = CACHE_REFERENCE_PATTERN.matcher(getValues(step));
+                while (matcher.find()) {
+                    if ("cache".equals(matcher.group(1))) {
+                        references.add(matcher.group(2).trim());
+                    }
+                }
+            }
+            cacheReferences = references;
+        }
+        return references;
+    }
+
+    /**
+     * @return All step values as json, values inherited from the global config included
+     */
+    private static String getValues(RestDDModel.Step step) {
+        StringBuilder values = new StringBuilder();
+        step.map(value -> {
+            if (value != null) {
+                values.append(RestTestData.gson.toJson(value));
+            }
+            return value;
+        });
+        return values.toString();
+    }
+
+    /**
+     * Releases connections held by streaming responses whose body has never been read.
+     */
+    @Override
+    public void close() {
+        List<IResponse> responses;
+        synchronized (responseMap) {
+            responses = new ArrayList<>(responseMap.values());
+        }
+        responses.forEach(this::release);
+    }
+
+    private void release(IResponse response) {
+        if (response instanceof HttpClientStreamingResponseImpl) {
+            ((HttpClientStreamingResponseImpl<?>) response).close();
+        }
+    }
+
     public Map<String, IResponse> getResponseMap() {
         return responseMap;
     }
 
     public IResponse getLastResponse() {
-        List<Map.Entry<String, IResponse>> entryList = new LinkedList<>(responseMap.entrySet());
+        List<Map.Entry<String, IResponse>> entryList;
+        synchronized (responseMap) {
+            entryList = new LinkedList<>(responseMap.entrySet());
+        }
         return entryList.get(entryList.size() - 1).getValue();
     }
 
@@ -120,14 +301,85 @@ public class RestDDContext {
                 spec.authHeader(modelRequest.getAuthToken());
             }
         }
+        if (step.getStreaming()) {
+            if (getCacheReferences().contains(step.getStepName())) {
+                LOG.warn("'{}.{}' Step is referenced by $<cache:...>, response is buffered instead of streamed.", model.getRelativeScenarioName(), step.getStepName());
+            } else {
+                spec.streaming();
+            }
+        }
         specMap.put(step.getStepName(), spec);
         return specMap.get(step.getStepName());
     }
 
+    /**
+     * Resolves cache references in step values. Only values with markup are parsed, the step and its request are copied
+     * only if something has been resolved and unchanged values are shared with the original step.
+     */
     protected RestDDModel.Step parseStepFromCache(RestDDModel.Step step) {
-        String stepString = RestTestData.gson.toJson(step);
-        String parsedString = parser.parseCache(stepString, responseCache);
-        parsedString = parser.parseHeadersCache(parsedString, headersCache);
-        return RestTestData.gson.fromJson(parsedString, RestDDModel.Step.class);
+        return step.map(this::parseValueFromCache);
+    }
+
+    protected Object parseValueFromCache(Object value) {
+        if (value instanceof String) {
+            return parseStringFromCache((String) value);
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            Map<Object, Object> parsedMap = null;
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                Object key = parseValueFromCache(entry.getKey());
+                Object parsedValue = parseValueFromCache(entry.getValue());
+                if (parsedMap == null && (key != entry.getKey() || parsedValue != entry.getValue())) {
+                    parsedMap = new LinkedHashMap<>();
+                    for (Map.Entry<Object, Object> previous : map.entrySet()) {
+                        if (previous == entry) {
+                            break;
+                        }
+                        parsedMap.put(previous.getKey(), previous.getValue());
+                    }
+                }
+                if (parsedMap != null) {
+                    parsedMap.put(key, parsedValue);
+                }
+            }
+            return parsedMap == null ? value : parsedMap;
+        }
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> parsedList = null;
+            for (int i = 0; i < list.size(); i++) {
+                Object item = list.get(i);
+                Object parsedItem = parseValueFromCache(item);
+                if (parsedList == null && parsedItem != item) {
+                    parsedList = new ArrayList<>(list.subList(0, i));
+                }
+                if (parsedList != null) {
+                    parsedList.add(parsedItem);
+                }
+            }
+            return parsedList == null ? value : parsedList;
+        }
+        return value;
+    }
+
+    /**
+     * String is parsed as json string token, so markup is resolved the same way as in test data files,
+     * e.g. json block from cache replaces the whole string value.
+     */
+    protected Object parseStringFromCache(String value) {
+        if (!value.contains("$<")) {
+            return value;
+        }
+        String json = RestTestData.gson.toJson(value);
+        String parsedJson = parser.parseCache(parser.compile(json), responseCache, headersCache, documentCache);
+        if (parsedJson.equals(json)) {
+            return value;
+        }
+        JsonElement element = JsonParser.parseString(parsedJson);
+        if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
+            return element.getAsString();
+        }
+        return RestTestData.gson.fromJson(element, Object.class);
     }
 }
@@ -0,0 +1,254 @@
+package com.companyname.rest;
+
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.concurrent.RestExecutors;
+import com.companyname.rest.config.RestConstants;
+import com.companyname.rest.driver.model.RestDDModel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs independent DD scenarios (e.g. {@link com.companyname.rest.data.RestDDAdapter#getScenarioList()}) on a worker pool.
+ * Concurrency is capped globally by <b>'dd.runner.threads'</b> and per base URI by <b>'dd.runner.max.per.uri'</b>.
+ * Scenarios of a base URI at its limit wait in a queue of that URI, so they don't occupy workers other URIs could use.
+ * Steps inside of one scenario are still sent by a single {@link RestDDContext#sendAll()}.
+ * On Java 21 with <b>'rest.virtual.threads'</b> enabled every scenario runs on its own virtual thread.
+ */
+public class RestDDRunner {
+    private static final Logger LOG = LogManager.getLogger(RestDDRunner.class);
+
+    private final int maxConcurrency;
+    private final int maxPerBaseUri;
+    private final Function<RestDDModel, RestDDContext> contextFactory;
+    private final Semaphore permits;
+
+    public RestDDRunner() {
+        this(Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.DD_RUNNER_THREADS, "8")),
+                Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.DD_RUNNER_MAX_PER_URI, "0")));
+    }
+
+    /**
+     * @param maxConcurrency Max number of scenarios executed at the same time
+     * @param maxPerBaseUri  Max number of scenarios executed at the same time against one base URI, 0 - no separate limit
+     */
+    public RestDDRunner(int maxConcurrency, int maxPerBaseUri) {
+        this(maxConcurrency, maxPerBaseUri, RestDDContext::new);
+    }
+
+    /**
+     * @param maxConcurrency Max number of scenarios executed at the same time
+     * @param maxPerBaseUri  Max number of scenarios executed at the same time against one base URI, 0 - no separate limit
+     * @param contextFactory Creates the context a scenario is executed with, e.g. project specific {@link RestDDContext} extension
+     */
+    public RestDDRunner(int maxConcurrency, int maxPerBaseUri, Function<RestDDModel, RestDDContext> contextFactory) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException(RestConstants.Properties.DD_RUNNER_THREADS + " should be greater than 0: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxPerBaseUri = maxPerBaseUri > 0 ? maxPerBaseUri : maxConcurrency;
+        this.contextFactory = contextFactory;
+    }
+
+    /**
+     * Executes all scenarios and waits for them to finish. Failed scenarios don't stop the others.
+     *
+     * @param scenarios Scenarios to run
+     * @return Summary with a result per scenario in the same order as scenarios were provided
+     */
+    public Summary run(List<RestDDModel> scenarios) {
+        long start = System.nanoTime();
+        AtomicReferenceArray<ScenarioResult> results = new AtomicReferenceArray<>(scenarios.size());
+        ExecutorService executor = RestExecutors.newFixedExecutor("rest-dd-runner-", maxConcurrency);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(scenarios.size());
+            Map<String, BaseUriQueue> queues = new LinkedHashMap<>();
+            int index = 0;
+            for (RestDDModel scenario : scenarios) {
+                int resultIndex = index++;
+                CompletableFuture<Void> future = new CompletableFuture<>();
+                futures.add(future);
+                queues.computeIfAbsent(getBaseUri(scenario), uri -> new BaseUriQueue(executor))
+                        .submit(() -> results.set(resultIndex, runScenario(scenario)), future);
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<ScenarioResult> resultList = new ArrayList<>(results.length());
+        for (int i = 0; i < results.length(); i++) {
+            resultList.add(results.get(i));
+        }
+        Summary summary = new Summary(resultList, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOG.info(summary.toString());
+        return summary;
+    }
+
+    /**
+     * Executes the scenario once the global permit is acquired, which only waits with virtual threads,
+     * as platform workers are limited to the same number. Duration doesn't include the wait.
+     */
+    protected ScenarioResult runScenario(RestDDModel scenario) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ScenarioResult(scenario, e, 0);
+        }
+        long start = System.nanoTime();
+        try {
+            LOG.info("'{}' Scenario started.", scenario.getRelativeScenarioName());
+            try (RestDDContext context = contextFactory.apply(scenario)) {
+                context.sendAll();
+            }
+            return new ScenarioResult(scenario, null, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Throwable e) {
+            LOG.error("'{}' Scenario failed: {}", scenario.getRelativeScenarioName(), e.getMessage());
+            return new ScenarioResult(scenario, e, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Base URI used for the per URI limit, taken from the first step which overrides it, otherwise the default one.
+     */
+    protected String getBaseUri(RestDDModel scenario) {
+        return scenario.getSteps().values().stream()
+                .map(RestDDModel.Step::getRequest)
+                .filter(request -> request != null && request.getBaseUri() != null)
+                .map(RestDDModel.Request::getBaseUri)
+                .findFirst()
+                .orElse(String.valueOf(RestDDContext.baseUri));
+    }
+
+    /**
+     * Scenarios of one base URI, at most 'maxPerBaseUri' of them are submitted to the executor at a time,
+     * the next one is submitted when a running one finishes.
+     */
+    private class BaseUriQueue {
+        private final Executor executor;
+        private final Deque<Runnable> pending = new ArrayDeque<>();
+        private int running;
+
+        private BaseUriQueue(Executor executor) {
+            this.executor = executor;
+        }
+
+        synchronized void submit(Runnable scenario, CompletableFuture<Void> future) {
+            pending.addLast(() -> {
+                try {
+                    scenario.run();
+                    future.complete(null);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    finished();
+                }
+            });
+            dispatch();
+        }
+
+        private synchronized void finished() {
+            running--;
+            dispatch();
+        }
+
+        private void dispatch() {
+            while (running < maxPerBaseUri && !pending.isEmpty()) {
+                running++;
+                executor.execute(pending.pollFirst());
+            }
+        }
+    }
+
+    public static class ScenarioResult {
+        private final RestDDModel scenario;
+        private final Throwable error;
+        private final long durationMillis;
+
+        ScenarioResult(RestDDModel scenario, Throwable error, long durationMillis) {
+            this.scenario = scenario;
+            this.error = error;
+            this.durationMillis = durationMillis;
+        }
+
+        public RestDDModel getScenario() {
+            return scenario;
+        }
+
+        public String getScenarioName() {
+            return scenario.getRelativeFileName() + ":" + scenario.getRelativeScenarioName();
+        }
+
+        public boolean isPassed() {
+            return error == null;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+
+    public static class Summary {
+        private final List<ScenarioResult> results;
+        private final long durationMillis;
+
+        Summary(List<ScenarioResult> results, long durationMillis) {
+            this.results = results;
+            this.durationMillis = durationMillis;
+        }
+
+        public List<ScenarioResult> getResults() {
+            return results;
+        }
+
+        public List<ScenarioResult> getFailures() {
+            return results.stream().filter(result -> !result.isPassed()).collect(Collectors.toList());
+        }
+
+        public int getTotal() {
+            return results.size();
+        }
+
+        public int getPassed() {
+            return getTotal() - getFailed();
+        }
+
+        public int getFailed() {
+            return getFailures().size();
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("DD run finished in ").append(durationMillis).append(" ms. Total: ").append(getTotal())
+                    .append(", Passed: ").append(getPassed()).append(", Failed: ").append(getFailed());
+            getFailures().forEach(result -> builder.append("\n\tFAILED ").append(result.getScenarioName()).append(" - ").append(result.getError()));
+            return builder.toString();
+        }
+    }
+}
@@ -7,18 +7,43 @@ public class RestConstants {
         public final static String REST_BASE_URI = "rest.base.uri";
         public final static String REST_URL_SUPPLIER_CLASS = "rest.url.supplier.class";
         public final static String REST_PARSER_CLASS = "rest.parser.class";
+        public final static String REST_PARSER_TEMPLATE_CACHE_SIZE = "rest.parser.template.cache.size";
+        public final static String REST_PARSER_TEMPLATE_CACHE_CHARS = "rest.parser.template.cache.chars";
         public final static String REST_OAUTH2_FUNCTION_CLASS = "rest.oauth2.function.class";
         public final static String REST_SPEC_DRIVER = "rest.spec.driver";
+        public final static String REST_HTTP_VERSION = "rest.http.version";
         public final static String REST_TESTDATA_ROOT_FOLDER = "rest.testdata.root.folder";
+        public final static String REST_TESTDATA_CACHE_SIZE = "rest.testdata.cache.size";
+        public final static String REST_DATA_RX_BUFFER_SIZE = "rest.data.rx.buffer.size";
+        public final static String REST_DATA_NODE_ID = "rest.data.node.id";
         public final static String SOAP_TESTDATA_ROOT_FOLDER = "soap.testdata.root.folder";
         public final static String REQUEST_AUTH_FUNCTION_NAME = "request.auth.function.name";
         public final static String REQUEST_AUTH_TOKEN = "request.auth.token";
         public final static String DD_FOLDER_PATHS = "dd.folder.paths";
         public final static String DD_FILE_NAMES = "dd.file.names";
+        public final static String DD_STEPS_PARALLEL = "dd.steps.parallel";
+        public final static String DD_SNAPSHOT_PATH = "dd.snapshot.path";
+        public final static String DD_RUNNER_THREADS = "dd.runner.threads";
+        public final static String DD_RUNNER_MAX_PER_URI = "dd.runner.max.per.uri";
         //public final static String TEST_NAMES = "test.names";
         public static final String LOG_PRETTY_JSON = "rest.pretty.log";
+        public static final String REST_LOG_DETAIL = "rest.log.detail";
+        public static final String REST_LOG_BODY_LIMIT = "rest.log.body.limit";
+        public static final String REST_LOG_SUCCESS_SAMPLING = "rest.log.success.sampling";
+        public static final String REST_HAR_PATH = "rest.har.path";
+        public static final String REST_HAR_QUEUE_SIZE = "rest.har.queue.size";
+        public static final String REST_HAR_QUEUE_BYTES = "rest.har.queue.bytes";
+        public static final String REST_HAR_BODY_LIMIT = "rest.har.body.limit";
         public static final String REST_RESPONSE_TIMEOUT = "rest.response.timeout";
         public static final String SOAP_BASE_URI = "soap.base.uri";
+        public static final String REST_VIRTUAL_THREADS = "rest.virtual.threads";
+        public static final String REST_ASYNC_THREADS = "rest.async.threads";
+        public static final String REST_POOL_ENABLED = "rest.pool.enabled";
+        public static final String REST_POOL_MAX_TOTAL = "rest.pool.max.total";
+        public static final String REST_POOL_MAX_PER_ROUTE = "rest.pool.max.per.route";
+        public static final String REST_POOL_KEEP_ALIVE = "rest.pool.keep.alive";
+        public static final String REST_POOL_IDLE_TIMEOUT = "rest.pool.idle.timeout";
+        public static final String REST_POOL_EVICTION_INTERVAL = "rest.pool.eviction.interval";
 
     }
 }
@@ -0,0 +1,136 @@
+package com.companyname.rest.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Text with "$&lt;type args&gt;" markup compiled once into literal and expression segments.
+ * Rendering only concatenates literals with processed expression values, so one template can be rendered
+ * many times against different processors (e.g. response caches of different scenario runs).
+ *
+ * @see DefaultDataParser for supported markup
+ */
+public class DataTemplate {
+    private static final String EXPRESSION_MARKER = "$<";
+
+    private final String text;
+    private final List<Object> segments;
+    private final int literalLength;
+
+    private DataTemplate(String text, List<Object> segments, int literalLength) {
+        this.text = text;
+        this.segments = segments;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Splits text into segments by expression pattern.
+     *
+     * @param text              Text to compile
+     * @param expressionPattern Pattern with groups: 1 - opening quote, 2 - expression type, 3 - expression args, 4 - closing quote
+     */
+    public static DataTemplate compile(String text, Pattern expressionPattern) {
+        if (!text.contains(EXPRESSION_MARKER)) {
+            return new DataTemplate(text, Collections.singletonList(text), text.length());
+        }
+        List<Object> segments = new ArrayList<>();
+        int literalLength = 0;
+        int position = 0;
+        Matcher matcher = expressionPattern.matcher(text);
+        while (matcher.find()) {
+            if (matcher.start() > position) {
+                segments.add(text.substring(position, matcher.start()));
+                literalLength += matcher.start() - position;
+            }
+            segments.add(new Expression(matcher.group(1), matcher.group(2).trim(), matcher.group(3).replace("\\\\", "\\").trim(),
+                    matcher.group().replace("\\\\", "\\").trim(), matcher.group(4)));
+            position = matcher.end();
+        }
+        if (position < text.length()) {
+            segments.add(text.substring(position));
+            literalLength += text.length() - position;
+        }
+        return new DataTemplate(text, Collections.unmodifiableList(segments), literalLength);
+    }
+
+    /**
+     * Renders template, expressions without registered processor are kept as they are.
+     * Json blocks returned by "cache" and "testdata" processors replace the quoted expression completely.
+     *
+     * @param processors Expression processors by expression type
+     */
+    public String render(Map<String, Function<String, String>> processors) {
+        if (!hasExpressions()) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(literalLength + 16 * segments.size());
+        for (Object segment : segments) {
+            if (segment instanceof String) {
+                sb.append((String) segment);
+                continue;
+            }
+            Expression expression = (Expression) segment;
+            Function<String, String> processor = processors.get(expression.type);
+            if (processor == null) {
+                sb.append(expression.raw);
+                continue;
+            }
+            String processedValue = processor.apply(expression.args);
+            if ((expression.type.equals("cache") || expression.type.equals("testdata"))
+                    && (processedValue.startsWith("{") || processedValue.startsWith("["))) {
+                sb.append(processedValue);
+            } else {
+                sb.append(expression.openingQuote).append(processedValue).append(expression.closingQuote);
+            }
+        }
+        return sb.toString();
+    }
+
+    public boolean hasExpressions() {
+        return segments.size() > 1 || (segments.size() == 1 && segments.get(0) instanceof Expression);
+    }
+
+    /**
+     * @return Types of expressions used in the template, e.g. "cache", "rx"
+     */
+    public Set<String> getExpressionTypes() {
+        Set<String> types = new HashSet<>();
+        segments.stream().filter(segment -> segment instanceof Expression).forEach(segment -> types.add(((Expression) segment).type));
+        return types;
+    }
+
+    /**
+     * @return Source text of the template
+     */
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private static class Expression {
+        private final String openingQuote;
+        private final String type;
+        private final String args;
+        private final String raw;
+        private final String closingQuote;
+
+        private Expression(String openingQuote, String type, String args, String raw, String closingQuote) {
+            this.openingQuote = openingQuote;
+            this.type = type;
+            this.args = args;
+            this.raw = raw;
+            this.closingQuote = closingQuote;
+        }
+    }
+}
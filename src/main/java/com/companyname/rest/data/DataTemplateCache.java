@@ -0,0 +1,70 @@
+package com.companyname.rest.data;
+
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.config.RestConstants;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Process wide cache of compiled templates, keyed by text length and hash. Every template keeps its text,
+ * which is compared on a hit, so the cache holds the texts of all cached templates.
+ * Templates are split into 16 stripes with own locks, so parallel parsing doesn't wait on one lock, and eviction is approximate:
+ * least recently used templates of a stripe are evicted when the stripe has more than its share of
+ * <b>'rest.parser.template.cache.size'</b> templates (512 by default) or texts of all templates take more than
+ * <b>'rest.parser.template.cache.chars'</b> characters (16777216 by default), 0 - cache is disabled.
+ * Texts longer than the whole limit are not cached.
+ */
+class DataTemplateCache {
+    private static final int MAX_SIZE = Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.REST_PARSER_TEMPLATE_CACHE_SIZE, "512"));
+    private static final long MAX_CHARS = Long.parseLong(PropertyReader.getProperty(RestConstants.Properties.REST_PARSER_TEMPLATE_CACHE_CHARS, "16777216"));
+    private static final int STRIPES = 16;
+
+    @SuppressWarnings("unchecked")
+    private final Map<Long, DataTemplate>[] stripes = new Map[STRIPES];
+    private final int maxStripeSize = Math.max(1, (MAX_SIZE + STRIPES - 1) / STRIPES);
+    private final AtomicLong chars = new AtomicLong();
+
+    DataTemplateCache() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true);
+        }
+    }
+
+    /**
+     * @param text    Template text
+     * @param compile Compiles the text if it isn't cached
+     */
+    DataTemplate get(String text, Function<String, DataTemplate> compile) {
+        int hash = text.hashCode();
+        Long key = (long) text.length() << 32 | hash & 0xFFFFFFFFL;
+        Map<Long, DataTemplate> stripe = stripes[(hash ^ hash >>> 16) & STRIPES - 1];
+        DataTemplate template;
+        synchronized (stripe) {
+            template = stripe.get(key);
+        }
+        if (template != null && template.getText().equals(text)) {
+            return template;
+        }
+        template = compile.apply(text);
+        if (MAX_SIZE > 0 && text.length() <= MAX_CHARS) {
+            put(stripe, key, template);
+        }
+        return template;
+    }
+
+    private void put(Map<Long, DataTemplate> stripe, Long key, DataTemplate template) {
+        synchronized (stripe) {
+            DataTemplate previous = stripe.put(key, template);
+            chars.addAndGet(template.getText().length() - (previous == null ? 0 : previous.getText().length()));
+            Iterator<DataTemplate> eldest = stripe.values().iterator();
+            while (stripe.size() > maxStripeSize || chars.get() > MAX_CHARS && stripe.size() > 1) {
+                chars.addAndGet(-eldest.next().getText().length());
+                eldest.remove();
+            }
+        }
+    }
+}
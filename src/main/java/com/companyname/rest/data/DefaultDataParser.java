@@ -1,21 +1,28 @@
 package com.companyname.rest.data;
 
 import com.companyname.rest.driver.Header;
-import com.mifmif.common.regex.Generex;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import io.restassured.path.json.JsonPath;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Default implementation of {@link IDataParser} interface.
@@ -52,6 +59,21 @@ import java.util.regex.Pattern;
  *  <a href="http://docs.groovy-lang.org/latest/html/documentation/#_gpath">GPath documentation</a>
  *  Examples: $&lt;testdata:default/restServiceName/rest_example1:TestData1&gt;.
  *  </li>
+ *  <li>seq(:name) - next value of JVM wide sequence, every name has its own sequence.
+ *      Examples: $&lt;seq&gt;, ORDER-$&lt;seq:orders&gt;.
+ *  </li>
+ *  <li>nodeSeq(:name) - next value of sequence prefixed by 'rest.data.node.id', unique across JVMs with different node ids.
+ *      Examples: $&lt;nodeSeq:orders&gt;.
+ *  </li>
+ *  <li>uniqueId - time ordered unique number, unique across JVMs with different node ids.
+ *      Examples: user$&lt;uniqueId&gt;@mail.com.
+ *  </li>
+ *  <li>uuid - random UUID.
+ *      Examples: $&lt;uuid&gt;.
+ *  </li>
+ *  <li>randInt:(min):(max) - random number from min to max inclusive.
+ *      Examples: $&lt;randInt:1:100&gt;.
+ *  </li>
  * </ul>
  */
 public class DefaultDataParser implements IDataParser {
@@ -59,12 +81,18 @@ public class DefaultDataParser implements IDataParser {
 
     protected static String expressionRegexp = "(\"?)\\$<(\\w+)([^>]*)>(\"?)";
     protected static String datePattern = "MM/dd/yyyy";
+    private static final DataTemplateCache templates = new DataTemplateCache();
 
     static {
         expressionPattern = Pattern.compile(expressionRegexp);
     }
 
-    protected Map<String, Function<String, String>> processors = new HashMap<>();
+    private static final ThreadLocal<TestDataResolution> testDataResolution = ThreadLocal.withInitial(TestDataResolution::new);
+
+    /**
+     * Registered processors, immutable and shared by all threads using the parser
+     */
+    protected volatile ProcessorRegistry processors = ProcessorRegistry.EMPTY;
 
     public DefaultDataParser() {
         registerProcessor("today", args -> processDateTime(LocalDateTime.now(), args));
@@ -72,8 +100,13 @@ public class DefaultDataParser implements IDataParser {
         registerProcessor("BOY", args -> processDateTime(LocalDateTime.now().with(TemporalAdjusters.firstDayOfYear()), args));
         registerProcessor("BONM", args -> processDateTime(LocalDateTime.now().with(TemporalAdjusters.firstDayOfNextMonth()), args));
         registerProcessor("BONY", args -> processDateTime(LocalDateTime.now().with(TemporalAdjusters.firstDayOfNextYear()), args));
-        registerProcessor("rx", s -> new Generex(s.replaceFirst("^:", "")).random());
+        registerProcessor("rx", s -> RegexGenerator.forPattern(s.replaceFirst("^:", "")).random());
         registerProcessor("testdata", s -> processTestData(s.replaceFirst("^:", "")));
+        registerProcessor("seq", s -> String.valueOf(UniqueDataGenerator.sequence(s.replaceFirst("^:", ""))));
+        registerProcessor("nodeSeq", s -> String.valueOf(UniqueDataGenerator.nodeSequence(s.replaceFirst("^:", ""))));
+        registerProcessor("uniqueId", s -> String.valueOf(UniqueDataGenerator.uniqueId()));
+        registerProcessor("uuid", s -> UniqueDataGenerator.uuid());
+        registerProcessor("randInt", this::processRandomNumber);
     }
 
     /**
@@ -82,13 +115,20 @@ public class DefaultDataParser implements IDataParser {
      * @param exprType expression type (e.g. "today" in "$&lt;today&gt" markup string)
      * @param proc     expression processor
      */
-    public void registerProcessor(String exprType, Function<String, String> proc) {
-        processors.put(exprType, proc);
+    public synchronized void registerProcessor(String exprType, Function<String, String> proc) {
+        processors = processors.with(exprType, proc);
     }
 
     @Override
     public String parse(String value) {
-        return parseText(value, processors);
+        ProcessorRegistry processors = this.processors;
+        return resolve(() -> parseText(value, processors));
+    }
+
+    @Override
+    public String parse(DataTemplate template) {
+        ProcessorRegistry processors = this.processors;
+        return resolve(() -> template.render(processors));
     }
 
     @Override
@@ -99,36 +139,63 @@ public class DefaultDataParser implements IDataParser {
 
     }
 
+    /**
+     * Resolves cache, cache_headers and the registered markup in a single pass over the template.
+     */
+    @Override
+    public String parseCache(DataTemplate template, Map<String, String> cachedData, Map<String, List<Header>> cachedHeaders) {
+        return parseCache(template, cachedData, cachedHeaders, null);
+    }
+
+    @Override
+    public String parseCache(DataTemplate template, Map<String, String> cachedData, Map<String, List<Header>> cachedHeaders, JsonDocumentCache documents) {
+        if (!template.hasExpressions()) {
+            return template.getText();
+        }
+        Map<String, Function<String, String>> cacheProcessors = new HashMap<>();
+        cacheProcessors.put("cache", args -> processCachedData(args.replaceFirst("^:", ""), cachedData, documents));
+        cacheProcessors.put("cache_headers", args -> processHeadersCache(args.replaceFirst("^:", ""), cachedHeaders));
+        ProcessorRegistry processors = this.processors.overlay(cacheProcessors);
+        return resolve(() -> template.render(processors));
+    }
+
+    /**
+     * Compiled templates are cached, so repeatedly parsed data (same test data files, same steps) is compiled only once,
+     * see {@link DataTemplateCache}.
+     */
+    @Override
+    public DataTemplate compile(String value) {
+        return templates.get(value, text -> DataTemplate.compile(text, expressionPattern));
+    }
+
     @Override
     public String parseHeadersCache(String value, Map<String, List<Header>> cachedData) {
-        processors.put("cache_headers", args -> processHeadersCache(args.replaceFirst("^:", ""), cachedData));
-        return parseText(value, processors);
+        ProcessorRegistry processors = this.processors.overlay(
+                Collections.singletonMap("cache_headers", args -> processHeadersCache(args.replaceFirst("^:", ""), cachedData)));
+        return resolve(() -> parseText(value, processors));
     }
 
 
-    protected String parseText(String value, Map<String, Function<String, String>> processors) {
-        StringBuffer sb = new StringBuffer();
-        Matcher matcher = expressionPattern.matcher(value);
-        while (matcher.find()) {
-            String expressionType = matcher.group(2).trim();
-            String expressionArgs = matcher.group(3).replace("\\\\", "\\").trim();
-            String defaultValue = matcher.group().replace("\\\\", "\\").trim();
-            if (processors.containsKey(expressionType)) {
-                String processedValue = processors.get(expressionType).apply(expressionArgs);
-                if ((expressionType.equals("cache") || expressionType.equals("testdata"))
-                        && (processedValue.startsWith("{") || processedValue.startsWith("["))) {
-                    matcher.appendReplacement(sb, processedValue);
-                } else {
-                    matcher.appendReplacement(sb, "");
-                    sb.append(matcher.group(1)).append(processedValue).append(matcher.group(4));
-                }
-            } else {
-                matcher.appendReplacement(sb, "");
-                sb.append(defaultValue);
+    /**
+     * Runs parsing in a testdata resolution scope: every referenced file (with its markup) and every referenced path
+     * is resolved once per top level parse, nested parsing of referenced files shares the scope.
+     * Files are identified by the normalized path, so 'a.json' and './a.json' are the same file.
+     */
+    protected String resolve(Supplier<String> parsing) {
+        TestDataResolution resolution = testDataResolution.get();
+        resolution.depth++;
+        try {
+            return parsing.get();
+        } finally {
+            if (--resolution.depth == 0) {
+                resolution.resolved.clear();
+                resolution.files.clear();
             }
         }
-        matcher.appendTail(sb);
-        return sb.toString();
+    }
+
+    protected String parseText(String value, Map<String, Function<String, String>> processors) {
+        return compile(value).render(processors);
     }
 
     protected String processDateTime(LocalDateTime dateTime, String argString) {
@@ -165,14 +232,32 @@ public class DefaultDataParser implements IDataParser {
         return dateTime.format(fmt);
     }
 
+    protected String processRandomNumber(String argString) {
+        String[] splitArgs = argString.replaceFirst("^:", "").split(":");
+        if (splitArgs.length != 2) {
+            throw new RuntimeException("Wrong randInt expression arguments '" + argString + "'. Example: $<randInt:1:100>");
+        }
+        return String.valueOf(UniqueDataGenerator.randomLong(Long.parseLong(splitArgs[0].trim()), Long.parseLong(splitArgs[1].trim())));
+    }
+
     protected String processCachedData(String argString, Map<String, String> cachedData) {
+        return processCachedData(argString, cachedData, null);
+    }
+
+    /**
+     * @param documents Parsed cached responses, null - cached response is parsed for every lookup
+     */
+    protected String processCachedData(String argString, Map<String, String> cachedData, JsonDocumentCache documents) {
         List<String> splitArgs = Arrays.asList(argString.split(":", 2));
         String pathKey = splitArgs.get(0).trim();
         if (cachedData.isEmpty()) {
             throw new RuntimeException("Cached data empty, check if cashed data variable is not used in the first step or response successfully received in previous step: " + pathKey);
         }
         if (cachedData.containsKey(pathKey) && !cachedData.get(pathKey).isEmpty()) {
-            return readJson(cachedData.get(pathKey), splitArgs.get(1).trim());
+            if (documents == null) {
+                return readJson(cachedData.get(pathKey), splitArgs.get(1).trim());
+            }
+            return toValueString(documents.read(pathKey, cachedData.get(pathKey), splitArgs.get(1).trim()));
         } else {
             throw new RuntimeException("No such data cashed or path is not built properly: " + pathKey);
         }
@@ -197,19 +282,71 @@ public class DefaultDataParser implements IDataParser {
         List<String> splitArgs = Arrays.asList(argString.split(":", 2));
 
         if (splitArgs.size() == 2) {
-            String td = new RestTestData().fromFile(splitArgs.get(0).trim()).asString();
-            return readJson(td, splitArgs.get(1).trim());
+            Path file = RestTestData.resolvePath(splitArgs.get(0).trim());
+            String path = splitArgs.get(1).trim();
+            TestDataResolution resolution = testDataResolution.get();
+            String key = file + ":" + path;
+            String resolved = resolution.resolved.get(key);
+            if (resolved != null) {
+                return resolved;
+            }
+            JsonElement json = resolution.files.get(file);
+            if (json == null) {
+                if (resolution.chain.contains(file)) {
+                    throw new RuntimeException("Cyclic testdata reference: " + resolution.chain.stream().map(Path::toString).collect(Collectors.joining(" -> ")) + " -> " + file);
+                }
+                resolution.chain.addLast(file);
+                try {
+                    json = new RestTestData().fromPath(file).getSharedJsonElement();
+                } finally {
+                    resolution.chain.removeLast();
+                }
+                if (resolution.depth > 0) {
+                    resolution.files.put(file, json);
+                }
+            }
+            resolved = readJson(json, path);
+            if (resolution.depth > 0) {
+                resolution.resolved.put(key, resolved);
+            }
+            return resolved;
         }
         throw new RuntimeException("Wrong reference " + argString
                 + ". Only 2 level reference level is allowed. Example: 'key': '$<testdata:path_to_file:path_to_jsonElement>'");
     }
 
+    /**
+     * Paths supported by {@link GsonPath} are evaluated without GPath.
+     */
     protected String readJson(String json, String path) {
+        GsonPath gsonPath = GsonPath.compile(path);
+        if (gsonPath != null) {
+            return toValueString(gsonPath.evaluate(JsonParser.parseString(json)));
+        }
         JsonPath jsonPath = new JsonPath(json);
-        String result = RestTestData.gson.toJson(jsonPath.get(path), Object.class);
+        return toValueString(jsonPath.get(path));
+    }
+
+    protected String readJson(JsonElement json, String path) {
+        GsonPath gsonPath = GsonPath.compile(path);
+        if (gsonPath != null) {
+            return toValueString(gsonPath.evaluate(json));
+        }
+        return toValueString(new JsonPath(json.toString()).get(path));
+    }
+
+    protected String toValueString(Object value) {
+        String result = RestTestData.gson.toJson(value, Object.class);
         if (!result.isEmpty() && result.startsWith("\"")) {
             result = result.substring(1, result.length() - 1);
         }
         return result;
     }
+
+    private static class TestDataResolution {
+        private final Map<String, String> resolved = new HashMap<>();
+        private final Map<Path, JsonElement> files = new HashMap<>();
+        private final Deque<Path> chain = new ArrayDeque<>();
+        private int depth;
+    }
 }
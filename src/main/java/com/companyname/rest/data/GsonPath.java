@@ -0,0 +1,267 @@
+package com.companyname.rest.data;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled subset of GPath evaluated directly against Gson trees. Supported expressions:
+ * <ul>
+ * <li>root: empty path or $</li>
+ * <li>properties: quote.quoteNumber, 'property-name'</li>
+ * <li>indexes: items[0], items[-1], [0].name</li>
+ * <li>spread over lists: items.name, items*.name</li>
+ * <li>filters: items.find { it.type == 'A' }.name, items.findAll { it.price != 0 }, literals are strings, numbers, true/false/null</li>
+ * </ul>
+ * {@link #compile(String)} returns null for other GPath expressions, they have to be evaluated by GPath.
+ */
+public final class GsonPath {
+    private static final int MAX_COMPILED_PATHS = 1024;
+    private static final GsonPath NOT_SUPPORTED = new GsonPath(Collections.emptyList());
+    private static final Map<String, GsonPath> compiledPaths = new ConcurrentHashMap<>();
+    private static final Pattern FILTER_PATTERN = Pattern.compile("^\\s*it((?:\\.\\w+)*)\\s*(==|!=)\\s*('[^']*'|\"[^\"]*\"|-?\\d+(?:\\.\\d+)?|true|false|null)\\s*$");
+
+    private final List<Segment> segments;
+
+    private GsonPath(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * @param path GPath expression
+     * @return Compiled path, null if the expression is not supported
+     */
+    public static GsonPath compile(String path) {
+        GsonPath compiled = compiledPaths.get(path);
+        if (compiled == null) {
+            compiled = parse(path.trim());
+            if (compiledPaths.size() >= MAX_COMPILED_PATHS) {
+                compiledPaths.clear();
+            }
+            compiledPaths.put(path, compiled == null ? NOT_SUPPORTED : compiled);
+        }
+        return compiled == NOT_SUPPORTED ? null : compiled;
+    }
+
+    /**
+     * @param root Json tree, is not modified
+     * @return Found element, {@link JsonNull} if nothing is found. Results of spread and findAll are new arrays
+     * which share elements with the root.
+     */
+    public JsonElement evaluate(JsonElement root) {
+        JsonElement current = root == null ? JsonNull.INSTANCE : root;
+        for (Segment segment : segments) {
+            current = segment.apply(current);
+        }
+        return current;
+    }
+
+    private static GsonPath parse(String path) {
+        if (path.equals("$")) {
+            return new GsonPath(Collections.emptyList());
+        }
+        List<Segment> segments = new ArrayList<>();
+        int length = path.length();
+        int position = 0;
+        boolean expectName = false;
+        while (position < length) {
+            char c = path.charAt(position);
+            if (c == '.') {
+                if (expectName || segments.isEmpty() && position == 0) {
+                    return null;
+                }
+                expectName = true;
+                position++;
+            } else if (c == '*' && position + 1 < length && path.charAt(position + 1) == '.' && !expectName) {
+                expectName = true;
+                position += 2;
+            } else if (c == '[' && !expectName) {
+                int end = path.indexOf(']', position);
+                if (end < 0) {
+                    return null;
+                }
+                try {
+                    segments.add(new Index(Integer.parseInt(path.substring(position + 1, end).trim())));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                position = end + 1;
+            } else if (c == '\'' || c == '"') {
+                int end = path.indexOf(c, position + 1);
+                if (end < 0 || !expectName && !segments.isEmpty()) {
+                    return null;
+                }
+                segments.add(new Property(path.substring(position + 1, end)));
+                expectName = false;
+                position = end + 1;
+            } else if (Character.isJavaIdentifierStart(c) && (expectName || segments.isEmpty())) {
+                int end = position + 1;
+                while (end < length && Character.isJavaIdentifierPart(path.charAt(end))) {
+                    end++;
+                }
+                String name = path.substring(position, end);
+                if (name.equals("$") && segments.isEmpty()) {
+                    // root followed by more segments is left to GPath
+                    return null;
+                }
+                position = end;
+                while (position < length && path.charAt(position) == ' ') {
+                    position++;
+                }
+                if ((name.equals("find") || name.equals("findAll")) && position < length && path.charAt(position) == '{') {
+                    int closing = path.indexOf('}', position);
+                    if (closing < 0) {
+                        return null;
+                    }
+                    Filter filter = Filter.parse(path.substring(position + 1, closing), name.equals("findAll"));
+                    if (filter == null) {
+                        return null;
+                    }
+                    segments.add(filter);
+                    position = closing + 1;
+                } else if (position < length && (path.charAt(position) == '(' || path.charAt(position) == '{')) {
+                    return null;
+                } else {
+                    segments.add(new Property(name));
+                }
+                expectName = false;
+            } else {
+                return null;
+            }
+        }
+        return expectName ? null : new GsonPath(Collections.unmodifiableList(segments));
+    }
+
+    private interface Segment {
+        JsonElement apply(JsonElement element);
+    }
+
+    private static class Property implements Segment {
+        private final String name;
+
+        private Property(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public JsonElement apply(JsonElement element) {
+            if (element.isJsonObject()) {
+                JsonElement value = element.getAsJsonObject().get(name);
+                return value == null ? JsonNull.INSTANCE : value;
+            }
+            if (element.isJsonArray()) {
+                JsonArray result = new JsonArray();
+                element.getAsJsonArray().forEach(item -> result.add(apply(item)));
+                return result;
+            }
+            return JsonNull.INSTANCE;
+        }
+    }
+
+    private static class Index implements Segment {
+        private final int index;
+
+        private Index(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public JsonElement apply(JsonElement element) {
+            if (!element.isJsonArray()) {
+                return JsonNull.INSTANCE;
+            }
+            JsonArray array = element.getAsJsonArray();
+            int position = index < 0 ? array.size() + index : index;
+            return position >= 0 && position < array.size() ? array.get(position) : JsonNull.INSTANCE;
+        }
+    }
+
+    private static class Filter implements Segment {
+        private final String[] fieldPath;
+        private final boolean equal;
+        private final JsonElement literal;
+        private final boolean all;
+
+        private Filter(String[] fieldPath, boolean equal, JsonElement literal, boolean all) {
+            this.fieldPath = fieldPath;
+            this.equal = equal;
+            this.literal = literal;
+            this.all = all;
+        }
+
+        private static Filter parse(String condition, boolean all) {
+            Matcher matcher = FILTER_PATTERN.matcher(condition);
+            if (!matcher.matches()) {
+                return null;
+            }
+            String fields = matcher.group(1);
+            String[] fieldPath = fields.isEmpty() ? new String[0] : fields.substring(1).split("\\.");
+            String value = matcher.group(3);
+            JsonElement literal;
+            if (value.startsWith("'") || value.startsWith("\"")) {
+                literal = new JsonPrimitive(value.substring(1, value.length() - 1));
+            } else if (value.equals("null")) {
+                literal = JsonNull.INSTANCE;
+            } else if (value.equals("true") || value.equals("false")) {
+                literal = new JsonPrimitive(Boolean.parseBoolean(value));
+            } else {
+                literal = new JsonPrimitive(new BigDecimal(value));
+            }
+            return new Filter(fieldPath, matcher.group(2).equals("=="), literal, all);
+        }
+
+        @Override
+        public JsonElement apply(JsonElement element) {
+            if (!element.isJsonArray()) {
+                return JsonNull.INSTANCE;
+            }
+            JsonArray result = new JsonArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                if (matches(item)) {
+                    if (!all) {
+                        return item;
+                    }
+                    result.add(item);
+                }
+            }
+            return all ? result : JsonNull.INSTANCE;
+        }
+
+        private boolean matches(JsonElement item) {
+            JsonElement value = item;
+            for (String field : fieldPath) {
+                value = value.isJsonObject() && value.getAsJsonObject().has(field) ? value.getAsJsonObject().get(field) : JsonNull.INSTANCE;
+            }
+            return isEqual(value) == equal;
+        }
+
+        private boolean isEqual(JsonElement value) {
+            if (literal.isJsonNull() || value.isJsonNull()) {
+                return literal.isJsonNull() && value.isJsonNull();
+            }
+            if (!value.isJsonPrimitive()) {
+                return false;
+            }
+            JsonPrimitive primitive = value.getAsJsonPrimitive();
+            JsonPrimitive expected = literal.getAsJsonPrimitive();
+            if (expected.isNumber()) {
+                return primitive.isNumber() && primitive.getAsBigDecimal().compareTo(expected.getAsBigDecimal()) == 0;
+            }
+            if (expected.isBoolean()) {
+                return primitive.isBoolean() && primitive.getAsBoolean() == expected.getAsBoolean();
+            }
+            return primitive.isString() && primitive.getAsString().equals(expected.getAsString());
+        }
+    }
+}
@@ -12,4 +12,29 @@ public interface IDataParser {
     String parseCache(String value, Map<String, String> cachedData);
 
     String parseHeadersCache(String value, Map<String, List<Header>> cachedData);
+
+    /**
+     * Compiles text once to be parsed many times with {@link #parse(DataTemplate)} and {@link #parseCache(DataTemplate, Map, Map)}.
+     */
+    default DataTemplate compile(String value) {
+        return DataTemplate.compile(value, DefaultDataParser.expressionPattern);
+    }
+
+    default String parse(DataTemplate template) {
+        return parse(template.getText());
+    }
+
+    /**
+     * Resolves both response body and response headers cache references.
+     */
+    default String parseCache(DataTemplate template, Map<String, String> cachedData, Map<String, List<Header>> cachedHeaders) {
+        return parseHeadersCache(parseCache(template.getText(), cachedData), cachedHeaders);
+    }
+
+    /**
+     * Same as {@link #parseCache(DataTemplate, Map, Map)}, cached responses are parsed once and kept in documents.
+     */
+    default String parseCache(DataTemplate template, Map<String, String> cachedData, Map<String, List<Header>> cachedHeaders, JsonDocumentCache documents) {
+        return parseCache(template, cachedData, cachedHeaders);
+    }
 }
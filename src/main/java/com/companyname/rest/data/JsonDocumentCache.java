@@ -0,0 +1,81 @@
+package com.companyname.rest.data;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import io.restassured.path.json.JsonPath;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached responses parsed once for "$&lt;cache:step:GPath&gt;" lookups, one instance per scenario execution
+ * (e.g. {@link com.companyname.rest.RestDDContext}).
+ * Paths supported by {@link GsonPath} are evaluated against Gson trees, other GPath expressions are evaluated
+ * by {@link JsonPath} of the parsed document, so RestAssured semantics are kept.
+ */
+public class JsonDocumentCache {
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+
+    /**
+     * @param key  Cache key, e.g. step name
+     * @param json Cached response body, document is parsed again only if it has changed for the key
+     * @param path GPath expression
+     * @return Value found by path, {@link JsonElement} for paths supported by {@link GsonPath}
+     */
+    public Object read(String key, String json, String path) {
+        Document document = documents.get(key);
+        if (document == null || !document.isSource(json)) {
+            document = new Document(json);
+            documents.put(key, document);
+        }
+        return document.get(path);
+    }
+
+    public void clear() {
+        documents.clear();
+    }
+
+    private static class Document {
+        private final String source;
+        private volatile JsonPath jsonPath;
+        private volatile JsonElement tree;
+
+        private Document(String source) {
+            this.source = source;
+        }
+
+        /**
+         * Cached responses are stored once per step, so the same instance is usually passed on every lookup
+         * and {@link String#equals} returns without comparing the content.
+         */
+        private boolean isSource(String json) {
+            return source.equals(json);
+        }
+
+        private Object get(String path) {
+            GsonPath gsonPath = GsonPath.compile(path);
+            if (gsonPath != null) {
+                return gsonPath.evaluate(getTree());
+            }
+            return getJsonPath().get(path);
+        }
+
+        private JsonElement getTree() {
+            JsonElement result = tree;
+            if (result == null) {
+                result = JsonParser.parseString(source);
+                tree = result;
+            }
+            return result;
+        }
+
+        private JsonPath getJsonPath() {
+            JsonPath result = jsonPath;
+            if (result == null) {
+                result = new JsonPath(source);
+                jsonPath = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.companyname.rest.data;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable map of markup processors by expression type, can be shared between threads without locking.
+ * Context specific processors (e.g. "cache" of one scenario) are layered on top with {@link #overlay(Map)},
+ * the base registry is never changed.
+ */
+public final class ProcessorRegistry extends AbstractMap<String, Function<String, String>> {
+    public static final ProcessorRegistry EMPTY = new ProcessorRegistry(Collections.emptyMap(), null);
+
+    private final Map<String, Function<String, String>> processors;
+    private final ProcessorRegistry parent;
+
+    private ProcessorRegistry(Map<String, Function<String, String>> processors, ProcessorRegistry parent) {
+        this.processors = processors;
+        this.parent = parent;
+    }
+
+    /**
+     * @return New registry with all processors of this one and the specified processor
+     */
+    public ProcessorRegistry with(String exprType, Function<String, String> processor) {
+        Map<String, Function<String, String>> copy = new HashMap<>(this);
+        copy.put(exprType, processor);
+        return new ProcessorRegistry(Collections.unmodifiableMap(copy), null);
+    }
+
+    /**
+     * @param layer Processors which take precedence over the processors of this registry
+     * @return New registry which looks up the layer first and then this registry
+     */
+    public ProcessorRegistry overlay(Map<String, Function<String, String>> layer) {
+        return new ProcessorRegistry(Collections.unmodifiableMap(new HashMap<>(layer)), this);
+    }
+
+    @Override
+    public Function<String, String> get(Object exprType) {
+        Function<String, String> processor = processors.get(exprType);
+        return processor != null || parent == null ? processor : parent.get(exprType);
+    }
+
+    @Override
+    public boolean containsKey(Object exprType) {
+        return get(exprType) != null;
+    }
+
+    @Override
+    public Set<Entry<String, Function<String, String>>> entrySet() {
+        if (parent == null) {
+            return processors.entrySet();
+        }
+        Map<String, Function<String, String>> all = new HashMap<>(parent);
+        all.putAll(processors);
+        return Collections.unmodifiableMap(all).entrySet();
+    }
+}
@@ -0,0 +1,137 @@
+package com.companyname.rest.data;
+
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.config.RestConstants;
+import com.mifmif.common.regex.Generex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random strings matching a regular expression, used by "$&lt;rx:...&gt;" markup.
+ * Generators are shared by pattern (the least recently used one is evicted above 1024 patterns) and can be used from many threads,
+ * the automaton is compiled once per pattern and every thread walks it with its own {@link ThreadLocalRandom}.
+ * Values can be generated in advance with {@link #prefill(int)}, then {@link #random()} only takes the next one
+ * from the buffer (size is set by <b>'rest.data.rx.buffer.size'</b>, 0 disables prefilling).
+ * The buffer is allocated on the first prefill.
+ */
+public class RegexGenerator {
+    private static final int MAX_GENERATORS = 1024;
+    private static final int BUFFER_SIZE = Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.REST_DATA_RX_BUFFER_SIZE, "10000"));
+    private static final Map<String, RegexGenerator> generators = new LinkedHashMap<String, RegexGenerator>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RegexGenerator> eldest) {
+            return size() > MAX_GENERATORS;
+        }
+    };
+
+    private final String pattern;
+    private final Generex generex;
+    private volatile BlockingQueue<String> buffer;
+
+    private RegexGenerator(String pattern) {
+        this.pattern = pattern;
+        this.generex = new Generex(pattern, new ThreadLocalRandomSource());
+        // the automaton expands lazily on the first walk, so it's done here before the generator is shared
+        generex.random();
+    }
+
+    /**
+     * @param pattern Regular expression
+     * @return Shared generator for the pattern
+     */
+    public static RegexGenerator forPattern(String pattern) {
+        RegexGenerator generator;
+        synchronized (generators) {
+            generator = generators.get(pattern);
+        }
+        if (generator == null) {
+            RegexGenerator created = new RegexGenerator(pattern);
+            synchronized (generators) {
+                generator = generators.putIfAbsent(pattern, created);
+            }
+            if (generator == null) {
+                generator = created;
+            }
+        }
+        return generator;
+    }
+
+    /**
+     * @return Value from the buffer, new generated value if the buffer is empty
+     */
+    public String random() {
+        BlockingQueue<String> values = buffer;
+        String value = values == null ? null : values.poll();
+        return value != null ? value : generate();
+    }
+
+    /**
+     * Generates values in advance, values which don't fit into the buffer are not generated.
+     *
+     * @param count Number of values to generate
+     * @return This generator
+     */
+    public RegexGenerator prefill(int count) {
+        if (count <= 0 || BUFFER_SIZE <= 0) {
+            return this;
+        }
+        BlockingQueue<String> values = getBuffer();
+        for (int i = 0; i < count && values.remainingCapacity() > 0; i++) {
+            if (!values.offer(generate())) {
+                break;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return Number of generated values which are not taken yet
+     */
+    public int buffered() {
+        BlockingQueue<String> values = buffer;
+        return values == null ? 0 : values.size();
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    private BlockingQueue<String> getBuffer() {
+        BlockingQueue<String> values = buffer;
+        if (values == null) {
+            synchronized (this) {
+                values = buffer;
+                if (values == null) {
+                    values = new ArrayBlockingQueue<>(BUFFER_SIZE);
+                    buffer = values;
+                }
+            }
+        }
+        return values;
+    }
+
+    private String generate() {
+        return generex.random();
+    }
+
+    /**
+     * Random of the calling thread, generating only reads the automaton, so a shared {@link Generex} doesn't need a lock.
+     */
+    private static final class ThreadLocalRandomSource extends Random {
+
+        @Override
+        protected int next(int bits) {
+            return ThreadLocalRandom.current().nextInt() >>> (32 - bits);
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return ThreadLocalRandom.current().nextInt(bound);
+        }
+    }
+}
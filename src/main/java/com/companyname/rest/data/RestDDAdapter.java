@@ -3,20 +3,30 @@ package com.companyname.rest.data;
 import com.companyname.config.props.PropertyReader;
 import com.companyname.rest.config.RestConstants;
 import com.companyname.rest.driver.model.RestDDModel;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class RestDDAdapter {
-    private static final String GLOBAL_CONFIG_MEMBER_NAME = "globalConfig";
+    static final String GLOBAL_CONFIG_MEMBER_NAME = "globalConfig";
+    private static final Gson DD_GSON = RestTestData.gsonSerializeNulls;
+    private static final int MAX_INTERNED_LENGTH = 64;
     private final LinkedHashMap<String, LinkedHashMap<String, RestDDModel>> scenarioMap = new LinkedHashMap<>();
     private final LinkedList<RestDDModel> scenarioList = new LinkedList();
-    private final LinkedList<Path> files = new LinkedList<>();
+    private final List<Path> files = new ArrayList<>();
+    private final Map<String, Path> fileIndex = new HashMap<>();
+    private final RestDDSnapshot snapshot = getSnapshot();
 
     public RestDDAdapter() {
         this(getDefaultfolders());
@@ -28,10 +38,12 @@ public class RestDDAdapter {
 
     public RestDDAdapter(List<String> pathsToFolder) {
         pathsToFolder.stream().forEach(s -> {
-            try {
-                Files.walk(Paths.get(RestTestData.ROOT_TESTDATA_PATH, "dd", s))
-                        .filter(Files::isRegularFile)
-                        .forEach(path -> files.add(path));
+            try (Stream<Path> paths = Files.walk(Paths.get(RestTestData.ROOT_TESTDATA_PATH, "dd", s))) {
+                paths.filter(Files::isRegularFile)
+                        .forEach(path -> {
+                            files.add(path);
+                            fileIndex.putIfAbsent(path.getFileName().toString(), path);
+                        });
             } catch (IOException e) {
                 throw new RuntimeException("Error during reading files from folder: " + s, e);
             }
@@ -46,49 +58,152 @@ public class RestDDAdapter {
         return Arrays.asList(folderPaths.replaceAll("\\s", "").split(",")).stream().collect(Collectors.toList());
     }
 
+    private static RestDDSnapshot getSnapshot() {
+        String snapshotPath = PropertyReader.getProperty(RestConstants.Properties.DD_SNAPSHOT_PATH, "");
+        return snapshotPath.isEmpty() ? null : RestDDSnapshot.open(Paths.get(snapshotPath));
+    }
+
     private RestDDAdapter readFile(String fileName) {
+        addScenarios(fileName, parseFile(fileName, snapshot));
+        if (snapshot != null) {
+            snapshot.save(true);
+        }
+        return this;
+    }
+
+    private RestDDAdapter addScenarios(String fileName, LinkedHashMap<String, RestDDModel> scenarios) {
+        this.scenarioList.addAll(scenarios.values());
+        this.scenarioMap.put(fileName, scenarios);
+        return this;
+    }
+
+    /**
+     * Parses file into scenarios without changing the adapter state, so files can be parsed in parallel.
+     * DD files are read once per run and are not kept in the test data file cache,
+     * unchanged files are taken from the snapshot if <b>'dd.snapshot.path'</b> is set.
+     */
+    private static LinkedHashMap<String, RestDDModel> parseFile(String fileName, RestDDSnapshot snapshot) {
         LinkedHashMap<String, RestDDModel> scenarios = new LinkedHashMap<>();
-        JsonObject json = new RestTestData().fromFile(fileName).asJsonElement().getAsJsonObject();
+        byte[] content;
+        try {
+            content = Files.readAllBytes(Paths.get(fileName));
+        } catch (IOException e) {
+            throw new RuntimeException("Wrong path to File or File doesn't exist", e);
+        }
+        String hash = snapshot == null ? null : RestDDSnapshot.hash(content);
+        JsonObject snapshotJson = snapshot == null ? null : snapshot.get(hash);
+        JsonObject json = snapshotJson != null ? snapshotJson : parseContent(content, hash, snapshot);
 
         RestDDModel.Step globalConfig = null;
         if (json.has(GLOBAL_CONFIG_MEMBER_NAME)) {
-            globalConfig = RestTestData.gsonBuilder.serializeNulls().create().fromJson(json.get(GLOBAL_CONFIG_MEMBER_NAME), RestDDModel.Step.class);
+            globalConfig = toGlobalConfig(json.get(GLOBAL_CONFIG_MEMBER_NAME));
             json.remove(GLOBAL_CONFIG_MEMBER_NAME);
         }
         RestDDModel.Step finalGlobalModel = globalConfig;
-        json.keySet().stream().forEach(s -> {
-            RestDDModel model = RestTestData.gsonBuilder.serializeNulls().create().fromJson(json.get(s), RestDDModel.class);
-            if (null != finalGlobalModel) {
-                model = model.merge(finalGlobalModel);
+        String relativeFileName = getRelativeFileName(Paths.get(fileName));
+        json.keySet().stream().forEach(s -> scenarios.put(s, toModel(json.get(s), finalGlobalModel, relativeFileName, s)));
+        return scenarios;
+    }
+
+    static RestDDModel.Step toGlobalConfig(JsonElement json) {
+        return DD_GSON.fromJson(intern(json), RestDDModel.Step.class);
+    }
+
+    /**
+     * Steps are linked to the global config shared by all scenarios of the file, see {@link RestDDModel.Step#inherit}.
+     */
+    static RestDDModel toModel(JsonElement json, RestDDModel.Step globalConfig, String relativeFileName, String scenarioName) {
+        RestDDModel model = DD_GSON.fromJson(intern(json), RestDDModel.class);
+        if (null != globalConfig) {
+            model = model.merge(globalConfig);
+        }
+        model.setRelativeFileName(relativeFileName);
+        model.setRelativeScenarioName(scenarioName);
+
+        Map<String, RestDDModel.Step> steps = model.getSteps();
+        steps.forEach((s1, step) -> {
+            if (steps.get(s1).getStepName() == null) {
+                steps.get(s1).setStepName(s1);
             }
-            this.scenarioList.add(model);
-            Path file = Paths.get(fileName);
-            String relativeFileName = Paths.get(file.getName(file.getNameCount() - 2).toString(), file.getFileName().toString()).toString();
-            model.setRelativeFileName(relativeFileName);
-            model.setRelativeScenarioName(s);
-            scenarios.put(s, model);
-
-            Map<String, RestDDModel.Step> steps = model.getSteps();
-            steps.forEach((s1, step) -> {
-                if (steps.get(s1).getStepName() == null) {
-                    steps.get(s1).setStepName(s1);
-                }
-            });
         });
-        this.scenarioMap.put(fileName, scenarios);
+        return model;
+    }
+
+    /**
+     * Interns member names and short string values in place, the tree is parsed for the file being read and isn't shared.
+     * Repeated literals (e.g. header names, endpoints, methods) of all loaded scenarios share the same instances after binding,
+     * long values (e.g. bodies) are mostly unique and are left as they are.
+     */
+    private static JsonElement intern(JsonElement json) {
+        if (json.isJsonObject()) {
+            JsonObject object = json.getAsJsonObject();
+            List<Map.Entry<String, JsonElement>> members = new ArrayList<>(object.size());
+            object.entrySet().forEach(member -> members.add(new AbstractMap.SimpleImmutableEntry<>(member.getKey(), member.getValue())));
+            members.forEach(member -> object.remove(member.getKey()));
+            members.forEach(member -> object.add(member.getKey().intern(), intern(member.getValue())));
+        } else if (json.isJsonArray()) {
+            JsonArray array = json.getAsJsonArray();
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, intern(array.get(i)));
+            }
+        } else if (json.isJsonPrimitive() && json.getAsJsonPrimitive().isString() && json.getAsString().length() <= MAX_INTERNED_LENGTH) {
+            return new JsonPrimitive(json.getAsString().intern());
+        }
+        return json;
+    }
+
+    static String getRelativeFileName(Path file) {
+        return Paths.get(file.getName(file.getNameCount() - 2).toString(), file.getFileName().toString()).toString();
+    }
+
+    private static JsonObject parseContent(byte[] content, String hash, RestDDSnapshot snapshot) {
+        String text = new String(content, StandardCharsets.UTF_8);
+        JsonObject json = new RestTestData().fromString(text).getSharedJsonElement().getAsJsonObject();
+        if (snapshot != null && RestDDSnapshot.isStorable(DataTemplate.compile(text, DefaultDataParser.expressionPattern))) {
+            snapshot.put(hash, json);
+        }
+        return json;
+    }
+
+    /**
+     * Looks up file by exact name, then by name with ".json" extension, then by the first file name containing it.
+     */
+    private Path findFile(String fileName) {
+        Path file = fileIndex.get(fileName);
+        if (file == null) {
+            file = fileIndex.get(fileName + ".json");
+        }
+        if (file == null) {
+            file = files.stream().filter(path -> path.getFileName().toString().contains(fileName)).findFirst().orElseThrow(() ->
+                    new RuntimeException("Error during file search by filename: " + fileName + ". Please check if file name is properly entered without path or 'dd.folder.paths' parameter is provided or file exists in folder."));
+        }
+        return file;
+    }
+
+    /**
+     * Parses files in parallel, scenarios are added in the order of files.
+     *
+     * @param retainUnused false if all DD files are read, so the snapshot drops files which no longer exist
+     */
+    private RestDDAdapter readFiles(List<Path> paths, boolean retainUnused) {
+        List<LinkedHashMap<String, RestDDModel>> parsed = paths.parallelStream()
+                .map(path -> parseFile(path.toString(), snapshot))
+                .collect(Collectors.toList());
+        Iterator<LinkedHashMap<String, RestDDModel>> scenarios = parsed.iterator();
+        paths.forEach(path -> addScenarios(path.toString(), scenarios.next()));
+        if (snapshot != null) {
+            snapshot.save(retainUnused);
+        }
         return this;
     }
 
     public RestDDAdapter fromSingleFile(String fileName) {
-        Path file = files.stream().filter(path -> path.getFileName().toString().contains(fileName)).findFirst().orElseThrow(() ->
-                new RuntimeException("Error during file search by filename: " + fileName + ". Please check if file name is properly entered without path or 'dd.folder.paths' parameter is provided or file exists in folder."));
-        readFile(file.toString());
+        readFile(findFile(fileName).toString());
         return this;
     }
 
     public RestDDAdapter fromFiles(List<String> fileNames) {
-        fileNames.stream().forEach(s -> fromSingleFile(s));
-        return this;
+        return readFiles(fileNames.stream().map(this::findFile).collect(Collectors.toList()), true);
     }
 
     public RestDDAdapter fromPropertyFiles() {
@@ -101,8 +216,29 @@ public class RestDDAdapter {
     }
 
     public RestDDAdapter fromAllFiles() {
-        files.stream().forEach(path -> readFile(path.toString()));
-        return this;
+        return readFiles(files, false);
+    }
+
+    /**
+     * Scenarios of all files read one by one, without keeping them in the adapter.
+     */
+    public RestDDScenarioSource streamAllFiles() {
+        return new RestDDScenarioSource(new ArrayList<>(files));
+    }
+
+    public RestDDScenarioSource streamFiles(List<String> fileNames) {
+        return new RestDDScenarioSource(fileNames.stream().map(this::findFile).collect(Collectors.toList()));
+    }
+
+    /**
+     * Streaming alternative of {@link #fromPropertyFiles()}.
+     */
+    public RestDDScenarioSource streamPropertyFiles() {
+        String fileNames = PropertyReader.getProperty(RestConstants.Properties.DD_FILE_NAMES);
+        if (fileNames.isEmpty()) {
+            return streamAllFiles();
+        }
+        return streamFiles(Arrays.asList(fileNames.replaceAll("\\s", "").split(",")));
     }
 
     public LinkedHashMap<String, LinkedHashMap<String, RestDDModel>> getScenarioMap() {
@@ -0,0 +1,144 @@
+package com.companyname.rest.data;
+
+import com.companyname.rest.driver.model.RestDDModel;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads DD scenarios one by one with {@link JsonReader}, only the current scenario is kept in memory.
+ * "globalConfig" is merged into scenarios on the fly, so it has to be the first member of a file.
+ * Can be returned from TestNG data provider as is, see {@link #asDataProvider()}.
+ */
+public class RestDDScenarioSource implements Iterator<RestDDModel>, Closeable {
+    private final Iterator<Path> files;
+    private Path file;
+    private JsonReader reader;
+    private RestDDModel.Step globalConfig;
+    private boolean scenarioRead;
+    private RestDDModel next;
+
+    RestDDScenarioSource(List<Path> files) {
+        this.files = files.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public RestDDModel next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        RestDDModel result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * @return Scenarios as TestNG data provider rows: {@code @DataProvider public Iterator<Object[]> data()}
+     */
+    public Iterator<Object[]> asDataProvider() {
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return RestDDScenarioSource.this.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{RestDDScenarioSource.this.next()};
+            }
+        };
+    }
+
+    public Stream<RestDDModel> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Error during closing file: " + file, e);
+            }
+            reader = null;
+        }
+    }
+
+    private RestDDModel readNext() {
+        try {
+            while (true) {
+                if (reader == null) {
+                    if (!files.hasNext()) {
+                        return null;
+                    }
+                    open(files.next());
+                }
+                if (reader.hasNext()) {
+                    RestDDModel model = readMember();
+                    if (model != null) {
+                        return model;
+                    }
+                } else {
+                    reader.endObject();
+                    close();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Path failedFile = file;
+            close();
+            throw new RuntimeException("Error during reading scenarios from file: " + failedFile, e);
+        }
+    }
+
+    private void open(Path path) throws IOException {
+        file = path;
+        globalConfig = null;
+        scenarioRead = false;
+        reader = new JsonReader(Files.newBufferedReader(path));
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new RuntimeException("DD file should contain json object with scenarios");
+        }
+        reader.beginObject();
+    }
+
+    /**
+     * @return Scenario, null if member is globalConfig
+     */
+    private RestDDModel readMember() throws IOException {
+        String name = reader.nextName();
+        JsonElement json = new RestTestData().fromJsonElement(JsonParser.parseReader(reader)).getSharedJsonElement();
+        if (RestDDAdapter.GLOBAL_CONFIG_MEMBER_NAME.equals(name)) {
+            if (scenarioRead) {
+                throw new RuntimeException("'" + RestDDAdapter.GLOBAL_CONFIG_MEMBER_NAME
+                        + "' should be the first member of DD file when scenarios are streamed");
+            }
+            globalConfig = RestDDAdapter.toGlobalConfig(json);
+            return null;
+        }
+        scenarioRead = true;
+        return RestDDAdapter.toModel(json, globalConfig, RestDDAdapter.getRelativeFileName(file), name);
+    }
+}
@@ -0,0 +1,378 @@
+package com.companyname.rest.data;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * On-disk snapshot of parsed DD files in a compact binary format, set by <b>'dd.snapshot.path'</b>.
+ * Files are keyed by SHA-256 of their content, so a changed file is parsed again and unchanged files are decoded
+ * from the memory-mapped snapshot without json parsing and markup processing.
+ * Only files whose markup is resolved during the scenario run ("cache", "cache_headers") are stored,
+ * values of other markup (e.g. "today", "rx") have to be generated on every run.
+ */
+public class RestDDSnapshot {
+    private static final Logger LOG = LogManager.getLogger(RestDDSnapshot.class);
+    private static final int MAGIC = 0x52444453;
+    private static final int VERSION = 1;
+    private static final int HASH_LENGTH = 32;
+    private static final Set<String> RUNTIME_EXPRESSIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("cache", "cache_headers")));
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte NUMBER = 3;
+    private static final byte STRING = 4;
+    private static final byte ARRAY = 5;
+    private static final byte OBJECT = 6;
+
+    private static final MethodHandle UNMAP = getUnmap();
+
+    private final Path path;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, int[]> stored = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> added = new ConcurrentHashMap<>();
+    private final Set<String> used = ConcurrentHashMap.newKeySet();
+    private ByteBuffer mapped;
+    private volatile boolean changed;
+
+    private RestDDSnapshot(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @param path Snapshot file, doesn't have to exist
+     * @return Snapshot, empty one if file doesn't exist or can't be read
+     */
+    public static RestDDSnapshot open(Path path) {
+        RestDDSnapshot snapshot = new RestDDSnapshot(path);
+        snapshot.load();
+        return snapshot;
+    }
+
+    public static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(HASH_LENGTH * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * @param text File content
+     * @return true if parsed file content can be stored
+     */
+    public static boolean isStorable(DataTemplate text) {
+        return RUNTIME_EXPRESSIONS.containsAll(text.getExpressionTypes());
+    }
+
+    /**
+     * @param hash Content hash, see {@link #hash(byte[])}
+     * @return New json tree, null if there is no such file in the snapshot or its entry is corrupted
+     */
+    public JsonObject get(String hash) {
+        byte[] bytes = added.get(hash);
+        if (bytes != null) {
+            used.add(hash);
+            return decode(ByteBuffer.wrap(bytes)).getAsJsonObject();
+        }
+        lock.readLock().lock();
+        try {
+            int[] location = stored.get(hash);
+            if (location == null) {
+                return null;
+            }
+            ByteBuffer buffer = mapped.duplicate();
+            buffer.position(location[0]);
+            buffer.limit(location[0] + location[1]);
+            JsonObject json = decode(buffer.slice()).getAsJsonObject();
+            used.add(hash);
+            return json;
+        } catch (RuntimeException e) {
+            LOG.warn("DD snapshot {} entry {} is corrupted, file will be parsed: {}", path, hash, e.toString());
+            stored.remove(hash);
+            changed = true;
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(String hash, JsonObject json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            encode(json, out);
+        } catch (IOException e) {
+            throw new RuntimeException("Error during encoding DD file", e);
+        }
+        added.put(hash, bytes.toByteArray());
+        used.add(hash);
+        changed = true;
+    }
+
+    /**
+     * Writes snapshot if files have been added or, when unused files are not retained, removed.
+     * Snapshot is written to a unique temporary file, which replaces the snapshot file once the current one is unmapped,
+     * as a mapped file can't be replaced on Windows.
+     *
+     * @param retainUnused false - only files read since the snapshot was opened are written (e.g. all DD files were read)
+     */
+    public void save(boolean retainUnused) {
+        Path temp = null;
+        lock.writeLock().lock();
+        try {
+            boolean removed = !retainUnused && !used.containsAll(stored.keySet());
+            if (!changed && !removed) {
+                return;
+            }
+            Path folder = path.toAbsolutePath().getParent();
+            Files.createDirectories(folder);
+            temp = Files.createTempFile(folder, path.getFileName().toString(), ".tmp");
+            Set<String> written = new HashSet<>();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                for (Map.Entry<String, int[]> entry : stored.entrySet()) {
+                    if ((retainUnused || used.contains(entry.getKey())) && !added.containsKey(entry.getKey())) {
+                        ByteBuffer buffer = mapped.duplicate();
+                        buffer.position(entry.getValue()[0]);
+                        byte[] bytes = new byte[entry.getValue()[1]];
+                        buffer.get(bytes);
+                        writeEntry(out, entry.getKey(), bytes);
+                    }
+                }
+                for (Map.Entry<String, byte[]> entry : added.entrySet()) {
+                    writeEntry(out, entry.getKey(), entry.getValue());
+                    written.add(entry.getKey());
+                }
+            }
+            unmap(mapped);
+            mapped = null;
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // maps the new snapshot, or the previous one again if it hasn't been replaced
+                load();
+            }
+            LOG.info("DD snapshot {} saved, {} files added.", path, written.size());
+            added.keySet().removeAll(written);
+            changed = !added.isEmpty();
+        } catch (IOException e) {
+            LOG.warn("DD snapshot {} can't be saved: {}", path, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+            deleteTemp(temp);
+        }
+    }
+
+    /**
+     * Maps the snapshot file and indexes its entries, the snapshot is empty if the file doesn't exist or can't be read.
+     */
+    private void load() {
+        stored.clear();
+        mapped = null;
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        ByteBuffer buffer = null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            index(buffer);
+            mapped = buffer;
+        } catch (IOException | RuntimeException e) {
+            stored.clear();
+            unmap(buffer);
+            LOG.warn("DD snapshot {} can't be read, files will be parsed: {}", path, e.getMessage());
+        }
+    }
+
+    private void index(ByteBuffer mapped) {
+        ByteBuffer buffer = mapped.duplicate();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new RuntimeException("Unsupported snapshot format");
+        }
+        byte[] hash = new byte[HASH_LENGTH * 2];
+        while (buffer.hasRemaining()) {
+            buffer.get(hash);
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new RuntimeException("Corrupted DD snapshot, entry is truncated");
+            }
+            stored.put(new String(hash, StandardCharsets.US_ASCII), new int[]{buffer.position(), length});
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    private void deleteTemp(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            LOG.warn("DD snapshot temporary file {} can't be deleted: {}", temp, e.getMessage());
+        }
+    }
+
+    /**
+     * Releases the mapping right away instead of waiting for the buffer to be collected, no-op if not supported.
+     */
+    private static void unmap(ByteBuffer buffer) {
+        if (buffer == null || UNMAP == null) {
+            return;
+        }
+        try {
+            UNMAP.invokeExact(buffer);
+        } catch (Throwable e) {
+            LOG.debug("DD snapshot can't be unmapped: {}", e.toString());
+        }
+    }
+
+    private static MethodHandle getUnmap() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("Unmapping is not supported, DD snapshot is released when collected: {}", e.toString());
+            return null;
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, String hash, byte[] bytes) throws IOException {
+        out.write(hash.getBytes(StandardCharsets.US_ASCII));
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void encode(JsonElement element, DataOutputStream out) throws IOException {
+        if (element == null || element.isJsonNull()) {
+            out.writeByte(NULL);
+        } else if (element.isJsonObject()) {
+            out.writeByte(OBJECT);
+            out.writeInt(element.getAsJsonObject().size());
+            for (Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+                writeString(member.getKey(), out);
+                encode(member.getValue(), out);
+            }
+        } else if (element.isJsonArray()) {
+            out.writeByte(ARRAY);
+            out.writeInt(element.getAsJsonArray().size());
+            for (JsonElement item : element.getAsJsonArray()) {
+                encode(item, out);
+            }
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.writeByte(primitive.getAsBoolean() ? TRUE : FALSE);
+            } else if (primitive.isNumber()) {
+                out.writeByte(NUMBER);
+                writeString(primitive.getAsString(), out);
+            } else {
+                out.writeByte(STRING);
+                writeString(primitive.getAsString(), out);
+            }
+        }
+    }
+
+    private static JsonElement decode(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case NULL:
+                return JsonNull.INSTANCE;
+            case TRUE:
+                return new JsonPrimitive(true);
+            case FALSE:
+                return new JsonPrimitive(false);
+            case NUMBER:
+                return new JsonPrimitive(new LazilyParsedNumber(readString(buffer)));
+            case STRING:
+                return new JsonPrimitive(readString(buffer));
+            case ARRAY:
+                int size = checkSize(buffer.getInt(), buffer);
+                JsonArray array = new JsonArray(size);
+                for (int i = 0; i < size; i++) {
+                    array.add(decode(buffer));
+                }
+                return array;
+            case OBJECT:
+                int members = checkSize(buffer.getInt(), buffer);
+                JsonObject object = new JsonObject();
+                for (int i = 0; i < members; i++) {
+                    String name = readString(buffer);
+                    object.add(name, decode(buffer));
+                }
+                return object;
+            default:
+                throw new RuntimeException("Corrupted DD snapshot, unknown tag: " + tag);
+        }
+    }
+
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = checkSize(buffer.getInt(), buffer);
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Every element takes at least one byte, so a bigger size means the entry is corrupted.
+     */
+    private static int checkSize(int size, ByteBuffer buffer) {
+        if (size < 0 || size > buffer.remaining()) {
+            throw new RuntimeException("Corrupted DD snapshot, invalid size: " + size);
+        }
+        return size;
+    }
+}
@@ -3,10 +3,10 @@ package com.companyname.rest.data;
 import com.companyname.config.props.ConfigLoader;
 import com.companyname.config.props.PropertyReader;
 import com.companyname.rest.config.RestConstants;
+import com.companyname.rest.driver.model.RestDDModelTypeAdapterFactory;
 import com.google.gson.*;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Map;
@@ -14,26 +14,44 @@ import java.util.Map;
 public class RestTestData implements IRestTestData {
 
     public static final String ROOT_TESTDATA_PATH = PropertyReader.getProperty(RestConstants.Properties.REST_TESTDATA_ROOT_FOLDER, "src/test/resources/testdata/rest");
-    public static final GsonBuilder gsonBuilder = new GsonBuilder().disableHtmlEscaping().setObjectToNumberStrategy(ToNumberPolicy.LAZILY_PARSED_NUMBER);
+    public static final GsonBuilder gsonBuilder = new GsonBuilder().disableHtmlEscaping().setObjectToNumberStrategy(ToNumberPolicy.LAZILY_PARSED_NUMBER)
+            .registerTypeAdapterFactory(new RestDDModelTypeAdapterFactory());
     public static final Gson gson = gsonBuilder.create();
+    /**
+     * Shared instance writing null values, use instead of creating Gson per call
+     */
+    public static final Gson gsonSerializeNulls = gson.newBuilder().serializeNulls().create();
     private static final IDataParser PARSER = ConfigLoader.getClassInstance(IDataParser.class, DefaultDataParser.class, RestConstants.Properties.REST_PARSER_CLASS);
     private JsonElement jsonElement;
+    private boolean expressions = true;
 
     public RestTestData fromFile(String pathToFile) {
-        Path path = Paths.get(pathToFile).startsWith(Paths.get(ROOT_TESTDATA_PATH)) ? Paths.get(pathToFile) : Paths.get(ROOT_TESTDATA_PATH, pathToFile);
-        try {
-            jsonElement = parseJsonValues(JsonParser.parseReader(Files.newBufferedReader(path)));
-        } catch (IOException e) {
-            throw new RuntimeException("Wrong path to File or File doesn't exist", e);
-        }
-        return this;
+        return fromPath(resolvePath(pathToFile));
     }
 
     public RestTestData fromFile(String pathToFolder, String filename) {
         Path path = Paths.get(pathToFolder).startsWith(Paths.get(ROOT_TESTDATA_PATH)) ? Paths.get(pathToFolder, filename) : Paths.get(ROOT_TESTDATA_PATH, pathToFolder, filename);
+        return fromPath(path);
+    }
 
+    /**
+     * @param pathToFile Path to file, relative to the test data root folder unless it starts with it
+     * @return Absolute normalized path, so the same file is always referenced by the same path
+     */
+    static Path resolvePath(String pathToFile) {
+        Path path = Paths.get(pathToFile).startsWith(Paths.get(ROOT_TESTDATA_PATH)) ? Paths.get(pathToFile) : Paths.get(ROOT_TESTDATA_PATH, pathToFile);
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Files without expressions are parsed once and shared until they are modified,
+     * files with expressions are parsed from the cached content on every call.
+     */
+    RestTestData fromPath(Path path) {
         try {
-            jsonElement = parseJsonValues(JsonParser.parseReader(Files.newBufferedReader(path)));
+            TestDataFileCache.CachedFile entry = TestDataFileCache.get(path);
+            jsonElement = entry.hasExpressions() ? JsonParser.parseString(PARSER.parse(entry.getText())) : entry.getElement();
+            expressions = entry.hasExpressions();
         } catch (IOException e) {
             throw new RuntimeException("Wrong path to File or File doesn't exist", e);
         }
@@ -42,16 +60,19 @@ public class RestTestData implements IRestTestData {
 
     public RestTestData fromObject(Object json) {
         jsonElement = parseJsonValues(gson.toJsonTree(json));
+        expressions = true;
         return this;
     }
 
     public RestTestData fromString(String json) {
         jsonElement = parseJsonValues(JsonParser.parseString(json));
+        expressions = true;
         return this;
     }
 
     public RestTestData fromJsonElement(JsonElement jsonElement) {
         this.jsonElement = parseJsonValues(jsonElement);
+        expressions = true;
         return this;
     }
 
@@ -67,9 +88,12 @@ public class RestTestData implements IRestTestData {
 
     @Override
     public <T> T asModel(Class<T> objectType) {
-        return gson.fromJson(asJsonElement(), objectType);
+        return gson.fromJson(jsonElement, objectType);
     }
 
+    /**
+     * @return Copy of test data, can be modified by the caller
+     */
     @Override
     public JsonElement asJsonElement() {
         return this.jsonElement.deepCopy();
@@ -77,11 +101,11 @@ public class RestTestData implements IRestTestData {
 
     @Override
     public JsonElement asJsonElement(String testDataName) {
-        return getJsonElement(testDataName);
+        return getJsonElement(testDataName).deepCopy();
     }
 
     public JsonElement asJsonElement(String testDataName, String state) {
-        return getJsonElement(testDataName, state);
+        return getJsonElement(testDataName, state).deepCopy();
     }
 
     @Override
@@ -102,7 +126,7 @@ public class RestTestData implements IRestTestData {
 
     @Override
     public String asString() {
-        return asJsonElement().toString();
+        return jsonElement.toString();
     }
 
     @Override
@@ -115,12 +139,26 @@ public class RestTestData implements IRestTestData {
         return getJsonElement(testDataName, state).toString();
     }
 
+    /**
+     * @return Test data without copying, can be shared with other readers and must not be modified
+     */
+    JsonElement getSharedJsonElement() {
+        return jsonElement;
+    }
+
+    /**
+     * @return false if test data is read from a file without expressions, so it's the same on every read
+     */
+    boolean hasExpressions() {
+        return expressions;
+    }
+
     private JsonElement getJsonElement(String testDataName) {
         return getJsonElement(testDataName, null);
     }
 
     private JsonElement getJsonElement(String testDataName, String state) {
-        JsonElement element = asJsonElement();
+        JsonElement element = jsonElement;
         String adjustedName = state != null ? testDataName.concat("_").concat(state) : testDataName;
         String name = element.getAsJsonObject().has(adjustedName) ? adjustedName : testDataName;
         if (!element.getAsJsonObject().has(name)) {
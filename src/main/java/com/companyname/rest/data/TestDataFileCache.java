@@ -0,0 +1,94 @@
+package com.companyname.rest.data;
+
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.config.RestConstants;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide cache of test data files, entries are reloaded when file modification time or size changes.
+ * Cached trees are shared between all readers and must not be modified.
+ * Max number of cached files is set by <b>'rest.testdata.cache.size'</b>, 0 - cache is disabled.
+ */
+class TestDataFileCache {
+    private static final String EXPRESSION_MARKER = "$<";
+    private static final int MAX_SIZE = Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.REST_TESTDATA_CACHE_SIZE, "1000"));
+    private static final Map<Path, CachedFile> entries = new LinkedHashMap<Path, CachedFile>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, CachedFile> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    private TestDataFileCache() {
+    }
+
+    static CachedFile get(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        CachedFile entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && entry.modified == modified && entry.size == size) {
+            return entry;
+        }
+        entry = load(key, modified, size);
+        if (MAX_SIZE > 0) {
+            synchronized (entries) {
+                entries.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    private static CachedFile load(Path path, long modified, long size) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path)) {
+            JsonElement element = JsonParser.parseReader(reader);
+            String text = element.toString();
+            return new CachedFile(modified, size, text, text.contains(EXPRESSION_MARKER) ? null : element);
+        }
+    }
+
+    static class CachedFile {
+        private final long modified;
+        private final long size;
+        private final String text;
+        private final JsonElement element;
+
+        private CachedFile(long modified, long size, String text, JsonElement element) {
+            this.modified = modified;
+            this.size = size;
+            this.text = text;
+            this.element = element;
+        }
+
+        /**
+         * @return File content as compact json
+         */
+        String getText() {
+            return text;
+        }
+
+        boolean hasExpressions() {
+            return element == null;
+        }
+
+        /**
+         * @return Shared tree of the file without expressions, must not be modified
+         */
+        JsonElement getElement() {
+            return element;
+        }
+    }
+}
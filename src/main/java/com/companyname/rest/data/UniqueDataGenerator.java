@@ -0,0 +1,108 @@
+package com.companyname.rest.data;
+
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.config.RestConstants;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free generators of unique test data for "seq", "nodeSeq", "uniqueId", "uuid" and "randInt" markup.
+ * Values of {@link #nodeSequence(String)} and {@link #uniqueId()} are unique across JVMs only when every JVM
+ * has its own <b>'rest.data.node.id'</b> (0-1023). If it isn't set, a random node id is used and a warning is logged,
+ * as JVMs may then get the same node id and generate the same values.
+ */
+public class UniqueDataGenerator {
+    private static final long NODE_SEQUENCE_FACTOR = 1_000_000_000_000L;
+    private static final long EPOCH = 1704067200000L;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final Logger LOG = LogManager.getLogger(UniqueDataGenerator.class);
+    private static final long NODE_ID = getConfiguredNodeId();
+    private static final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private static final AtomicLong uniqueIdState = new AtomicLong();
+
+    static {
+        if (NODE_ID < 0 || NODE_ID >= 1 << NODE_BITS) {
+            throw new RuntimeException(RestConstants.Properties.REST_DATA_NODE_ID + " should be in range 0-1023: " + NODE_ID);
+        }
+    }
+
+    private UniqueDataGenerator() {
+    }
+
+    /**
+     * @param name Sequence name, every name has its own counter
+     * @return Next value of the JVM wide sequence starting from 1
+     */
+    public static long sequence(String name) {
+        return sequences.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * @return Next value of the sequence prefixed by node id: nodeId * 10^12 + sequence
+     */
+    public static long nodeSequence(String name) {
+        return NODE_ID * NODE_SEQUENCE_FACTOR + sequence(name);
+    }
+
+    /**
+     * Time ordered 63 bit id: milliseconds since 2024-01-01, node id and sequence within millisecond.
+     * When more than 4096 ids are requested within a millisecond, the following milliseconds are used in advance.
+     */
+    public static long uniqueId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        while (true) {
+            long previous = uniqueIdState.get();
+            long next = now > previous >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : previous + 1;
+            if (uniqueIdState.compareAndSet(previous, next)) {
+                long time = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return time << (NODE_BITS + SEQUENCE_BITS) | NODE_ID << SEQUENCE_BITS | sequence;
+            }
+        }
+    }
+
+    /**
+     * @return Random (version 4) UUID generated with thread local random, faster than {@link UUID#randomUUID()}
+     * but not suitable for security purposes
+     */
+    public static String uuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = random.nextLong() & ~0xF000L | 0x4000L;
+        long leastSigBits = random.nextLong() & ~(0xC000000000000000L) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    /**
+     * @return Random number from min to max inclusive
+     */
+    public static long randomLong(long min, long max) {
+        if (min > max) {
+            throw new IllegalArgumentException("Min value " + min + " is greater than max value " + max);
+        }
+        return max == Long.MAX_VALUE ? ThreadLocalRandom.current().nextLong(min, max) : ThreadLocalRandom.current().nextLong(min, max + 1);
+    }
+
+    public static long getNodeId() {
+        return NODE_ID;
+    }
+
+    private static long getConfiguredNodeId() {
+        String nodeId = PropertyReader.getProperty(RestConstants.Properties.REST_DATA_NODE_ID, "");
+        if (!nodeId.isEmpty()) {
+            return Long.parseLong(nodeId.trim());
+        }
+        long randomNodeId = new SecureRandom().nextInt(1 << NODE_BITS);
+        LOG.warn("'{}' is not set, random node id {} is used. Ids generated by several JVMs can collide, set a distinct node id per JVM.",
+                RestConstants.Properties.REST_DATA_NODE_ID, randomNodeId);
+        return randomNodeId;
+    }
+}
@@ -1,10 +1,14 @@
 package com.companyname.rest.driver;
 
+import com.companyname.rest.concurrent.RestExecutors;
+import com.companyname.rest.config.RestConstants;
 import io.restassured.http.ContentType;
 
 import java.io.File;
 import java.io.InputStream;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public interface IRequestSpec {
 
@@ -256,6 +260,18 @@ public interface IRequestSpec {
      */
     IRequestSpec basePath(String basePath);
 
+    /**
+     * Response body won't be buffered, {@link IResponse#asInputStream()} reads it directly from the connection
+     * and other body accessors throw {@link IllegalStateException}. Use for big downloads.
+     *
+     * @return the request specification
+     * @throws UnsupportedOperationException if the driver always buffers the body (e.g. RestAssured)
+     */
+    default IRequestSpec streaming() {
+        throw new UnsupportedOperationException("Streaming responses are not supported by " + getClass().getSimpleName()
+                + ", use " + RestConstants.Properties.REST_SPEC_DRIVER + "=com.companyname.rest.driver.impl.HttpClientRequestSpecImpl");
+    }
+
     /**
      * Perform a custom HTTP request to the pre-configured path (by default <code>http://localhost:8080</code>).
      *
@@ -294,6 +310,75 @@ public interface IRequestSpec {
      */
     <T> IResponse request(String method, Class<T> expectedResponseType);
 
+    /**
+     * Perform a custom HTTP request to the pre-configured path without blocking the calling thread.
+     *
+     * @param method The HTTP method to use
+     * @return Future which is completed with the response of the request.
+     */
+    default CompletableFuture<IResponse> requestAsync(HttpMethod method) {
+        return requestAsync(method.toString(), Object.class);
+    }
+
+    /**
+     * Perform a custom HTTP request to the pre-configured path without blocking the calling thread.
+     *
+     * @param method               The HTTP method to use
+     * @param expectedResponseType - Response Deserialization expected class type. If unknown Object.class need to be set.
+     * @return Future which is completed with the response of the request.
+     */
+    default <T> CompletableFuture<IResponse> requestAsync(HttpMethod method, Class<T> expectedResponseType) {
+        return requestAsync(method.toString(), expectedResponseType);
+    }
+
+    /**
+     * Perform a custom HTTP request to the pre-configured path without blocking the calling thread.
+     *
+     * @param method               The HTTP method to use
+     * @param expectedResponseType - Response Deserialization expected class type. If unknown Object.class need to be set.
+     * @param executor             Executor used to complete the returned future and run its dependent stages.
+     * @return Future which is completed with the response of the request.
+     */
+    default <T> CompletableFuture<IResponse> requestAsync(HttpMethod method, Class<T> expectedResponseType, Executor executor) {
+        return requestAsync(method.toString(), expectedResponseType, executor);
+    }
+
+    /**
+     * Perform a custom HTTP request to the pre-configured path without blocking the calling thread.
+     *
+     * @param method The HTTP method to use
+     * @return Future which is completed with the response of the request.
+     */
+    default CompletableFuture<IResponse> requestAsync(String method) {
+        return requestAsync(method, Object.class);
+    }
+
+    /**
+     * Perform a custom HTTP request to the pre-configured path without blocking the calling thread.
+     * Drivers without non-blocking I/O (e.g. RestAssured) run the blocking {@link #request(String, Class)}
+     * on the shared {@link RestExecutors#requestExecutor()}, limited by <b>'rest.async.threads'</b>.
+     *
+     * @param method               The HTTP method to use
+     * @param expectedResponseType - Response Deserialization expected class type. If unknown Object.class need to be set.
+     * @return Future which is completed with the response of the request.
+     */
+    default <T> CompletableFuture<IResponse> requestAsync(String method, Class<T> expectedResponseType) {
+        return requestAsync(method, expectedResponseType, RestExecutors.requestExecutor());
+    }
+
+    /**
+     * Perform a custom HTTP request to the pre-configured path without blocking the calling thread.
+     * Drivers without non-blocking I/O (e.g. RestAssured) run the blocking {@link #request(String, Class)} on the given executor.
+     *
+     * @param method               The HTTP method to use
+     * @param expectedResponseType - Response Deserialization expected class type. If unknown Object.class need to be set.
+     * @param executor             Executor used to complete the returned future and run its dependent stages.
+     * @return Future which is completed with the response of the request.
+     */
+    default <T> CompletableFuture<IResponse> requestAsync(String method, Class<T> expectedResponseType, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> request(method, expectedResponseType), executor);
+    }
+
     /**
      * Specify the content type of the request.
      *
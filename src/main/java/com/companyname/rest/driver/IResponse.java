@@ -147,4 +147,11 @@ public interface IResponse<T> {
      */
     InputStream asInputStream();
 
+    /**
+     * @return true if the body isn't buffered, see {@link IRequestSpec#streaming()}
+     */
+    default boolean isStreaming() {
+        return false;
+    }
+
 }
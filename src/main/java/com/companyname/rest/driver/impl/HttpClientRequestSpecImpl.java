@@ -0,0 +1,602 @@
+package com.companyname.rest.driver.impl;
+
+import com.companyname.config.props.ConfigLoader;
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.authentication.DefaultAuthFunction;
+import com.companyname.rest.config.RestConstants;
+import com.companyname.rest.data.RestTestData;
+import com.companyname.rest.driver.HttpMethod;
+import com.companyname.rest.driver.IRequestSpec;
+import com.companyname.rest.driver.IResponse;
+import com.companyname.rest.logging.HarRecorder;
+import com.companyname.rest.logging.HttpClientLogger;
+import io.restassured.http.ContentType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link IRequestSpec} implementation on top of the JDK {@link HttpClient}.
+ * All specifications share one pooled client, so no per-request client setup, filter chain or Groovy is involved.
+ * Can be enabled with <b>'rest.spec.driver=com.companyname.rest.driver.impl.HttpClientRequestSpecImpl'</b>.
+ */
+public class HttpClientRequestSpecImpl implements IRequestSpec {
+    private static final String DEFAULT_BASE_URI = "http://localhost:8080";
+    private static final Logger LOG = LogManager.getLogger(HttpClientRequestSpecImpl.class);
+    /**
+     * Headers set by the client itself. Java 11 also restricts date, from, origin, referer, via and warning,
+     * those are skipped when rejected by the running JDK, see {@link #newRequestBuilder(URI)}
+     */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+    private static final Set<String> REJECTED_HEADERS = ConcurrentHashMap.newKeySet();
+    private static final Pattern PATH_PARAM_PATTERN = Pattern.compile("\\{([^/{}]+)}");
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofMillis(Long.parseLong(PropertyReader.getProperty(RestConstants.Properties.REST_RESPONSE_TIMEOUT, "180000")));
+    private static final HttpClient CLIENT = createClient();
+    private static final Function<String, String> authFunction = ConfigLoader.getClassInstance(Function.class, DefaultAuthFunction.class, RestConstants.Properties.REST_OAUTH2_FUNCTION_CLASS);
+
+    private final Map<String, List<String>> headers = new LinkedHashMap<>();
+    private final Map<String, Object> params = new LinkedHashMap<>();
+    private final Map<String, Object> queryParams = new LinkedHashMap<>();
+    private final Map<String, Object> formParams = new LinkedHashMap<>();
+    private final Map<String, Object> pathParams = new LinkedHashMap<>();
+    private final List<MultiPart> multiParts = new LinkedList<>();
+    private String baseUri = DEFAULT_BASE_URI;
+    private String basePath = "";
+    private String contentType;
+    private Object body;
+    private Boolean isAuthSet = false;
+    private boolean streaming;
+
+    /**
+     * @return The shared {@link HttpClient} used by all specifications
+     */
+    public static HttpClient getClient() {
+        return CLIENT;
+    }
+
+    private static HttpClient createClient() {
+        RestConnectionPool.configureJdkHttpClient();
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.valueOf(PropertyReader.getProperty(RestConstants.Properties.REST_HTTP_VERSION, "HTTP_1_1")))
+                .connectTimeout(RESPONSE_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public IRequestSpec body(String body) {
+        this.body = body;
+        return this;
+    }
+
+    @Override
+    public IRequestSpec body(InputStream body) {
+        this.body = body;
+        return this;
+    }
+
+    @Override
+    public IRequestSpec body(Object body) {
+        this.body = body;
+        return this;
+    }
+
+    @Override
+    public IRequestSpec params(String firstParameterName, Object firstParameterValue, Object... parameterNameValuePairs) {
+        putPairs(params, firstParameterName, firstParameterValue, parameterNameValuePairs);
+        return this;
+    }
+
+    @Override
+    public IRequestSpec params(Map<String, ?> parametersMap) {
+        params.putAll(parametersMap);
+        return this;
+    }
+
+    @Override
+    public IRequestSpec queryParams(String firstParameterName, Object firstParameterValue, Object... parameterNameValuePairs) {
+        putPairs(queryParams, firstParameterName, firstParameterValue, parameterNameValuePairs);
+        return this;
+    }
+
+    @Override
+    public IRequestSpec queryParams(Map<String, ?> parametersMap) {
+        queryParams.putAll(parametersMap);
+        return this;
+    }
+
+    @Override
+    public IRequestSpec formParams(String firstParameterName, Object firstParameterValue, Object... parameterNameValuePairs) {
+        putPairs(formParams, firstParameterName, firstParameterValue, parameterNameValuePairs);
+        return this;
+    }
+
+    @Override
+    public IRequestSpec formParams(Map<String, ?> parametersMap) {
+        formParams.putAll(parametersMap);
+        return this;
+    }
+
+    @Override
+    public IRequestSpec pathParams(String firstParameterName, Object firstParameterValue, Object... parameterNameValuePairs) {
+        putPairs(pathParams, firstParameterName, firstParameterValue, parameterNameValuePairs);
+        return this;
+    }
+
+    @Override
+    public IRequestSpec pathParams(Map<String, ?> parameterNameValuePairs) {
+        pathParams.putAll(parameterNameValuePairs);
+        return this;
+    }
+
+    /**
+     * @return {@link HttpRequest.Builder} pre-configured with the current URI and headers, method and body are not set
+     */
+    @Override
+    public HttpRequest.Builder getOriginalSpec() {
+        return newRequestBuilder(buildUri(HttpMethod.GET.toString()));
+    }
+
+    @Override
+    public IRequestSpec baseUri(String baseUri) {
+        this.baseUri = baseUri;
+        return this;
+    }
+
+    @Override
+    public IRequestSpec basePath(String basePath) {
+        this.basePath = basePath;
+        return this;
+    }
+
+    @Override
+    public <T> IResponse<T> request(HttpMethod method, Class<T> expectedResponseType) {
+        return request(method.toString(), expectedResponseType);
+    }
+
+    @Override
+    public <T> IResponse<T> request(String method, Class<T> expectedResponseType) {
+        String httpMethod = method.toUpperCase();
+        Payload payload = buildPayload(httpMethod);
+        HttpRequest httpRequest = buildRequest(httpMethod, payload);
+        HarRecorder.Timing timing = HarRecorder.start();
+        try {
+            if (streaming) {
+                HttpResponse<InputStream> response = CLIENT.send(httpRequest, HarRecorder.bodyHandler(timing, HttpResponse.BodyHandlers.ofInputStream()));
+                return toStreamingResponse(httpRequest, payload, response, null, timing);
+            }
+            HttpResponse<byte[]> response = CLIENT.send(httpRequest, HarRecorder.bodyHandler(timing, HttpResponse.BodyHandlers.ofByteArray()));
+            return toResponse(httpRequest, payload, response, null, expectedResponseType, timing);
+        } catch (IOException e) {
+            throw connectionError(httpRequest, payload, e, timing);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Request has been interrupted: " + httpRequest.uri(), e);
+        }
+    }
+
+    /**
+     * Response body is read by {@link IResponse#asInputStream()} directly from the connection, see {@link HttpClientStreamingResponseImpl}.
+     */
+    @Override
+    public IRequestSpec streaming() {
+        this.streaming = true;
+        return this;
+    }
+
+    /**
+     * Sends the request with {@link HttpClient#sendAsync}, so no thread is blocked while the call is in flight.
+     * The returned future is completed on the shared client executor.
+     */
+    @Override
+    public <T> CompletableFuture<IResponse> requestAsync(String method, Class<T> expectedResponseType) {
+        String httpMethod = method.toUpperCase();
+        Payload payload = buildPayload(httpMethod);
+        HttpRequest httpRequest = buildRequest(httpMethod, payload);
+        HarRecorder.Timing timing = HarRecorder.start();
+        if (streaming) {
+            return CLIENT.sendAsync(httpRequest, HarRecorder.bodyHandler(timing, HttpResponse.BodyHandlers.ofInputStream()))
+                    .<IResponse>handle((response, error) -> toStreamingResponse(httpRequest, payload, response, error, timing));
+        }
+        return CLIENT.sendAsync(httpRequest, HarRecorder.bodyHandler(timing, HttpResponse.BodyHandlers.ofByteArray()))
+                .<IResponse>handle((response, error) -> toResponse(httpRequest, payload, response, error, expectedResponseType, timing));
+    }
+
+    /**
+     * Sends the request with {@link HttpClient#sendAsync}, so no thread is blocked while the call is in flight.
+     * The returned future is completed on the given executor.
+     */
+    @Override
+    public <T> CompletableFuture<IResponse> requestAsync(String method, Class<T> expectedResponseType, Executor executor) {
+        String httpMethod = method.toUpperCase();
+        Payload payload = buildPayload(httpMethod);
+        HttpRequest httpRequest = buildRequest(httpMethod, payload);
+        HarRecorder.Timing timing = HarRecorder.start();
+        if (streaming) {
+            return CLIENT.sendAsync(httpRequest, HarRecorder.bodyHandler(timing, HttpResponse.BodyHandlers.ofInputStream()))
+                    .<IResponse>handleAsync((response, error) -> toStreamingResponse(httpRequest, payload, response, error, timing), executor);
+        }
+        return CLIENT.sendAsync(httpRequest, HarRecorder.bodyHandler(timing, HttpResponse.BodyHandlers.ofByteArray()))
+                .<IResponse>handleAsync((response, error) -> toResponse(httpRequest, payload, response, error, expectedResponseType, timing), executor);
+    }
+
+    @Override
+    public IRequestSpec contentType(String contentType) {
+        this.contentType = contentType;
+        return this;
+    }
+
+    @Override
+    public IRequestSpec contentType(ContentType contentType) {
+        return contentType(contentType.toString());
+    }
+
+    @Override
+    public IRequestSpec accept(String mediaTypes) {
+        headers.put("Accept", new ArrayList<>(List.of(mediaTypes)));
+        return this;
+    }
+
+    @Override
+    public IRequestSpec headers(String firstParameterName, Object firstParameterValue, Object... parameterNameValuePairs) {
+        Map<String, Object> pairs = new LinkedHashMap<>();
+        putPairs(pairs, firstParameterName, firstParameterValue, parameterNameValuePairs);
+        return headers(pairs);
+    }
+
+    @Override
+    public IRequestSpec headers(Map<String, ?> parameterNameValuePairs) {
+        parameterNameValuePairs.forEach((name, value) -> {
+            if ("Content-Type".equalsIgnoreCase(name)) {
+                contentType = String.valueOf(value);
+            } else {
+                toStrings(value).forEach(v -> headers.computeIfAbsent(name, n -> new ArrayList<>()).add(v));
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public IRequestSpec authHeader(String authTokenValue) {
+        headers.put("Authorization", new ArrayList<>(List.of(authTokenValue)));
+        isAuthSet = true;
+        return this;
+    }
+
+    @Override
+    public IRequestSpec authBasic(String userName, String password) {
+        return authBasic(Base64.getEncoder().encodeToString((userName + ":" + password).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public IRequestSpec authBasic(String token) {
+        return authHeader("Basic " + token);
+    }
+
+    @Override
+    public IRequestSpec authOauth2(String accessToken) {
+        return authHeader("Bearer " + accessToken);
+    }
+
+    @Override
+    public IRequestSpec authFunction(String functionName) {
+        String token;
+        try {
+            token = authFunction.apply(functionName);
+        } catch (Exception e) {
+            throw new RuntimeException("Not valid authentication name or not possible to get authentication data. Auth Function: " + authFunction.getClass().getSimpleName() + "#" + functionName, e);
+        }
+        return this.authHeader(token);
+    }
+
+    @Override
+    public Boolean isAuthSet() {
+        return isAuthSet;
+    }
+
+    @Override
+    public IRequestSpec multiPart(File file) {
+        return multiPart("file", file);
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, File file) {
+        return multiPart(controlName, file, "application/octet-stream");
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, File file, String mimeType) {
+        try {
+            multiParts.add(new MultiPart(controlName, file.getName(), mimeType, Files.readAllBytes(file.toPath())));
+        } catch (IOException e) {
+            throw new RuntimeException("Error during reading multipart file: " + file, e);
+        }
+        return this;
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, Object object) {
+        return multiPart(controlName, object, "application/json");
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, Object object, String mimeType) {
+        return multiPart(controlName, null, object, mimeType);
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, String filename, Object object, String mimeType) {
+        multiParts.add(new MultiPart(controlName, filename, mimeType, serialize(object)));
+        return this;
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, String fileName, byte[] bytes) {
+        return multiPart(controlName, fileName, bytes, "application/octet-stream");
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, String fileName, byte[] bytes, String mimeType) {
+        multiParts.add(new MultiPart(controlName, fileName, mimeType, bytes));
+        return this;
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, String fileName, InputStream stream) {
+        return multiPart(controlName, fileName, stream, "application/octet-stream");
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, String fileName, InputStream stream, String mimeType) {
+        return multiPart(controlName, fileName, readAll(stream), mimeType);
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, String contentBody) {
+        return multiPart(controlName, contentBody, "text/plain");
+    }
+
+    @Override
+    public IRequestSpec multiPart(String controlName, String contentBody, String mimeType) {
+        multiParts.add(new MultiPart(controlName, null, mimeType, contentBody.getBytes(StandardCharsets.UTF_8)));
+        return this;
+    }
+
+    private <T> IResponse<T> toResponse(HttpRequest httpRequest, Payload payload, HttpResponse<byte[]> response, Throwable error, Class<T> expectedResponseType,
+                                        HarRecorder.Timing timing) {
+        complete(httpRequest, payload, response, error, timing);
+        return new HttpClientResponseImpl<>(response, expectedResponseType);
+    }
+
+    private <T> IResponse<T> toStreamingResponse(HttpRequest httpRequest, Payload payload, HttpResponse<InputStream> response, Throwable error,
+                                                 HarRecorder.Timing timing) {
+        complete(httpRequest, payload, response, error, timing);
+        return new HttpClientStreamingResponseImpl<>(response);
+    }
+
+    /**
+     * Records and logs the exchange, connection error is rethrown.
+     */
+    private void complete(HttpRequest httpRequest, Payload payload, HttpResponse<?> response, Throwable error, HarRecorder.Timing timing) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            throw connectionError(httpRequest, payload, cause, timing);
+        }
+        HarRecorder.record(timing, httpRequest, payload.content, response, null);
+        HttpClientLogger.log(httpRequest, payload.content, response, null);
+    }
+
+    private RuntimeException connectionError(HttpRequest httpRequest, Payload payload, Throwable cause, HarRecorder.Timing timing) {
+        HarRecorder.record(timing, httpRequest, payload.content, null, cause);
+        HttpClientLogger.log(httpRequest, payload.content, null, cause);
+        return new RuntimeException("Something is wrong with the Response/Could not connect to the environment: " + httpRequest.uri(), cause);
+    }
+
+    protected HttpRequest buildRequest(String method, Payload payload) {
+        HttpRequest.Builder builder = newRequestBuilder(buildUri(method));
+        if (null != payload.contentType) {
+            builder.setHeader("Content-Type", payload.contentType);
+        }
+        builder.method(method, null == payload.content ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(payload.content));
+        return builder.build();
+    }
+
+    /**
+     * Builds the request body. Same as for RestAssured, {@link #params(Map)} are sent as form parameters for POST requests only.
+     */
+    protected Payload buildPayload(String method) {
+        Map<String, Object> form = new LinkedHashMap<>(formParams);
+        if (HttpMethod.POST.toString().equals(method)) {
+            form.putAll(params);
+        }
+        if (!multiParts.isEmpty()) {
+            return buildMultiPartPayload(form);
+        }
+        if (null != body) {
+            return new Payload(serialize(body), contentType);
+        }
+        if (!form.isEmpty()) {
+            return new Payload(encodeParams(form).getBytes(StandardCharsets.UTF_8), null == contentType ? "application/x-www-form-urlencoded" : contentType);
+        }
+        return new Payload(null, contentType);
+    }
+
+    protected URI buildUri(String method) {
+        StringBuilder url = new StringBuilder(null == baseUri ? DEFAULT_BASE_URI : baseUri);
+        if (null != basePath && !basePath.isEmpty()) {
+            if (url.charAt(url.length() - 1) == '/') {
+                url.setLength(url.length() - 1);
+            }
+            url.append(basePath.startsWith("/") ? "" : "/").append(basePath);
+        }
+
+        StringBuilder resolved = new StringBuilder();
+        Matcher matcher = PATH_PARAM_PATTERN.matcher(url);
+        while (matcher.find()) {
+            if (!pathParams.containsKey(matcher.group(1))) {
+                throw new IllegalArgumentException("Path parameter '" + matcher.group(1) + "' is not provided for " + url);
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(encode(String.valueOf(pathParams.get(matcher.group(1)))).replace("+", "%20")));
+        }
+        matcher.appendTail(resolved);
+
+        Map<String, Object> query = new LinkedHashMap<>(queryParams);
+        if (!HttpMethod.POST.toString().equals(method)) {
+            query.putAll(params);
+        }
+        if (!query.isEmpty()) {
+            resolved.append(resolved.indexOf("?") < 0 ? "?" : "&").append(encodeParams(query));
+        }
+        return URI.create(resolved.toString());
+    }
+
+    private HttpRequest.Builder newRequestBuilder(URI uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(RESPONSE_TIMEOUT);
+        headers.forEach((name, values) -> {
+            if (RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                return;
+            }
+            try {
+                values.forEach(value -> builder.header(name, value));
+            } catch (IllegalArgumentException e) {
+                if (REJECTED_HEADERS.add(name.toLowerCase())) {
+                    LOG.warn("Header '{}' is not allowed by the JDK HttpClient and is not sent: {}", name, e.getMessage());
+                }
+            }
+        });
+        return builder;
+    }
+
+    private Payload buildMultiPartPayload(Map<String, Object> form) {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        String multiPartType = (null != contentType && contentType.startsWith("multipart/") ? contentType : "multipart/form-data") + "; boundary=" + boundary;
+        List<MultiPart> parts = new ArrayList<>();
+        form.forEach((name, value) -> toStrings(value).forEach(v -> parts.add(new MultiPart(name, null, null, v.getBytes(StandardCharsets.UTF_8)))));
+        parts.addAll(multiParts);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (MultiPart part : parts) {
+            StringBuilder partHeader = new StringBuilder("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=\"").append(part.controlName).append('"');
+            if (null != part.fileName) {
+                partHeader.append("; filename=\"").append(part.fileName).append('"');
+            }
+            partHeader.append("\r\n");
+            if (null != part.mimeType) {
+                partHeader.append("Content-Type: ").append(part.mimeType).append("\r\n");
+            }
+            partHeader.append("\r\n");
+            out.writeBytes(partHeader.toString().getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(part.content);
+            out.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+        out.writeBytes(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return new Payload(out.toByteArray(), multiPartType);
+    }
+
+    private static byte[] serialize(Object object) {
+        if (object instanceof byte[]) {
+            return (byte[]) object;
+        }
+        if (object instanceof InputStream) {
+            return readAll((InputStream) object);
+        }
+        if (object instanceof String || object instanceof Number || object instanceof Boolean || object instanceof Character) {
+            return String.valueOf(object).getBytes(StandardCharsets.UTF_8);
+        }
+        return RestTestData.gson.toJson(object).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readAll(InputStream stream) {
+        try (InputStream in = stream) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Error during reading request body stream", e);
+        }
+    }
+
+    private static String encodeParams(Map<String, Object> parameters) {
+        List<String> pairs = new ArrayList<>();
+        parameters.forEach((name, value) -> toStrings(value).forEach(v -> pairs.add(encode(name) + "=" + encode(v))));
+        return String.join("&", pairs);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> toStrings(Object value) {
+        List<String> values = new ArrayList<>();
+        if (value instanceof Collection) {
+            ((Collection<?>) value).forEach(v -> values.add(String.valueOf(v)));
+        } else if (value instanceof Object[]) {
+            Arrays.stream((Object[]) value).forEach(v -> values.add(String.valueOf(v)));
+        } else {
+            values.add(String.valueOf(value));
+        }
+        return values;
+    }
+
+    private static void putPairs(Map<String, Object> target, String firstName, Object firstValue, Object... nameValuePairs) {
+        if (nameValuePairs.length % 2 != 0) {
+            throw new IllegalArgumentException("Parameters should be provided in name-value pairs");
+        }
+        target.put(firstName, firstValue);
+        for (int i = 0; i < nameValuePairs.length; i += 2) {
+            target.put(String.valueOf(nameValuePairs[i]), nameValuePairs[i + 1]);
+        }
+    }
+
+    protected static class Payload {
+        private final byte[] content;
+        private final String contentType;
+
+        Payload(byte[] content, String contentType) {
+            this.content = content;
+            this.contentType = contentType;
+        }
+    }
+
+    private static class MultiPart {
+        private final String controlName;
+        private final String fileName;
+        private final String mimeType;
+        private final byte[] content;
+
+        MultiPart(String controlName, String fileName, String mimeType, byte[] content) {
+            this.controlName = controlName;
+            this.fileName = fileName;
+            this.mimeType = mimeType;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.companyname.rest.driver.impl;
+
+import com.companyname.rest.data.RestTestData;
+import com.companyname.rest.driver.Header;
+import com.companyname.rest.driver.IResponse;
+import com.companyname.rest.driver.model.RestError;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.xml.XmlPath;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.HttpCookie;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class HttpClientResponseImpl<T> implements IResponse<T> {
+    private static final Gson PRETTY_GSON = RestTestData.gson.newBuilder().setPrettyPrinting().create();
+
+    private final HttpResponse<byte[]> response;
+    private final Object entity;
+
+
+    public <T> HttpClientResponseImpl(HttpResponse<byte[]> response, Class<T> expectedResponseType) {
+        this.response = response;
+        this.entity = expectedResponseType;
+    }
+
+    public <R> R asModel(Class<T> cls) {
+        if (!isSuccessful()) {
+            return (R) fromBody(RestError.class);
+        } else {
+            return (R) fromBody(cls);
+        }
+    }
+
+    @Override
+    public <R> R asModel() {
+        return asModel((Class<T>) entity);
+    }
+
+    @Override
+    public <T> T asSuccess(Class<T> cls) {
+        if (!isSuccessful()) {
+            throw new RuntimeException(String.join("The response was not successful, we expect success here\n", " ", asString()));
+        }
+        return fromBody(cls);
+    }
+
+    @Override
+    public <T> T asSuccess() {
+        return asSuccess((Class<T>) entity);
+    }
+
+    @Override
+    public RestError asError() {
+        if (isSuccessful()) {
+            throw new RuntimeException("The response is not failed, we expect failure here");
+        }
+        return fromBody(RestError.class);
+    }
+
+    @Override
+    public String getContentType() {
+        return response.headers().firstValue("Content-Type").orElse(null);
+    }
+
+    @Override
+    public Map<String, String> getCookies() {
+        Map<String, String> cookies = new LinkedHashMap<>();
+        response.headers().allValues("Set-Cookie").forEach(value ->
+                HttpCookie.parse(value).forEach(cookie -> cookies.putIfAbsent(cookie.getName(), cookie.getValue())));
+        return cookies;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return response.headers().firstValue(name).orElse(null);
+    }
+
+    @Override
+    public List<Header> getHeadersAsList() {
+        List<Header> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> values.forEach(value -> headers.add(new Header(name, value))));
+        return headers;
+    }
+
+    @Override
+    public String getHeadersAsString() {
+        return getHeadersAsList().stream().map(Header::toString).collect(Collectors.joining("\n"));
+    }
+
+    @Override
+    public Boolean isSuccessful() {
+        if (response == null) {
+            throw new RuntimeException("Response is NULL: Server down or response not received.");
+        }
+        return String.valueOf(response.statusCode()).matches("20.");
+    }
+
+    @Override
+    public int getStatusCode() {
+        return response.statusCode();
+    }
+
+    @Override
+    public String asString() {
+        return new String(response.body(), getCharset());
+    }
+
+
+    @Override
+    public XmlPath asXmlPath() {
+        return new XmlPath(asString());
+    }
+
+    @Override
+    public JsonPath asJsonPath() {
+        return new JsonPath(asString());
+    }
+
+    @Override
+    public String asPrettyString() {
+        String body = asString();
+        if (!(body.trim().startsWith("{") || body.trim().startsWith("["))) {
+            return body;
+        }
+        try {
+            return PRETTY_GSON.toJson(JsonParser.parseString(body));
+        } catch (JsonParseException e) {
+            return body;
+        }
+    }
+
+    @Override
+    public byte[] asByteArray() {
+        return response.body();
+    }
+
+    @Override
+    public InputStream asInputStream() {
+        return new ByteArrayInputStream(response.body());
+    }
+
+    /**
+     * @return The original JDK {@link HttpResponse}
+     */
+    @Override
+    public HttpResponse<byte[]> getOriginalResponse() {
+        return response;
+    }
+
+    private <M> M fromBody(Class<M> cls) {
+        if (String.class.equals(cls)) {
+            return (M) asString();
+        }
+        if (byte[].class.equals(cls)) {
+            return (M) asByteArray();
+        }
+        return RestTestData.gson.fromJson(asString(), cls);
+    }
+
+    private Charset getCharset() {
+        String contentType = getContentType();
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                String[] pair = parameter.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equalsIgnoreCase("charset")) {
+                    try {
+                        return Charset.forName(pair[1].replace("\"", "").trim());
+                    } catch (IllegalArgumentException e) {
+                        break;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
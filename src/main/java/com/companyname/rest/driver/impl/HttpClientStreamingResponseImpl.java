@@ -0,0 +1,169 @@
+package com.companyname.rest.driver.impl;
+
+import com.companyname.rest.driver.Header;
+import com.companyname.rest.driver.IResponse;
+import com.companyname.rest.driver.model.RestError;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.xml.XmlPath;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpCookie;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Response of a streaming request (see {@link com.companyname.rest.driver.IRequestSpec#streaming()}),
+ * the body isn't buffered and can be read only once with {@link #asInputStream()}, which reads it from the connection.
+ * Methods which need the whole body throw {@link IllegalStateException}. The stream has to be closed to release the connection,
+ * {@link #close()} releases it if the body has never been read.
+ */
+public class HttpClientStreamingResponseImpl<T> implements IResponse<T>, AutoCloseable {
+    private static final Logger LOG = LogManager.getLogger(HttpClientStreamingResponseImpl.class);
+
+    private final HttpResponse<InputStream> response;
+    private final AtomicBoolean consumed = new AtomicBoolean();
+
+    public HttpClientStreamingResponseImpl(HttpResponse<InputStream> response) {
+        this.response = response;
+    }
+
+    @Override
+    public <R> R asModel(Class<T> cls) {
+        throw notBuffered("asModel");
+    }
+
+    @Override
+    public <R> R asModel() {
+        throw notBuffered("asModel");
+    }
+
+    @Override
+    public <T> T asSuccess(Class<T> cls) {
+        throw notBuffered("asSuccess");
+    }
+
+    @Override
+    public <T> T asSuccess() {
+        throw notBuffered("asSuccess");
+    }
+
+    @Override
+    public RestError asError() {
+        throw notBuffered("asError");
+    }
+
+    @Override
+    public String getContentType() {
+        return response.headers().firstValue("Content-Type").orElse(null);
+    }
+
+    @Override
+    public Map<String, String> getCookies() {
+        Map<String, String> cookies = new LinkedHashMap<>();
+        response.headers().allValues("Set-Cookie").forEach(value ->
+                HttpCookie.parse(value).forEach(cookie -> cookies.putIfAbsent(cookie.getName(), cookie.getValue())));
+        return cookies;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return response.headers().firstValue(name).orElse(null);
+    }
+
+    @Override
+    public List<Header> getHeadersAsList() {
+        List<Header> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> values.forEach(value -> headers.add(new Header(name, value))));
+        return headers;
+    }
+
+    @Override
+    public String getHeadersAsString() {
+        return getHeadersAsList().stream().map(Header::toString).collect(Collectors.joining("\n"));
+    }
+
+    @Override
+    public Boolean isSuccessful() {
+        return String.valueOf(response.statusCode()).matches("20.");
+    }
+
+    @Override
+    public int getStatusCode() {
+        return response.statusCode();
+    }
+
+    @Override
+    public String asString() {
+        throw notBuffered("asString");
+    }
+
+    @Override
+    public XmlPath asXmlPath() {
+        throw notBuffered("asXmlPath");
+    }
+
+    @Override
+    public JsonPath asJsonPath() {
+        throw notBuffered("asJsonPath");
+    }
+
+    @Override
+    public String asPrettyString() {
+        throw notBuffered("asPrettyString");
+    }
+
+    @Override
+    public byte[] asByteArray() {
+        throw notBuffered("asByteArray");
+    }
+
+    /**
+     * @return Body read from the connection, can be called only once
+     */
+    @Override
+    public InputStream asInputStream() {
+        if (!consumed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Streaming response body has already been read or closed: " + response.uri());
+        }
+        return response.body();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    /**
+     * Closes the body unless it has been handed out by {@link #asInputStream()}, the stream is closed by its reader then.
+     */
+    @Override
+    public void close() {
+        if (consumed.compareAndSet(false, true)) {
+            try {
+                response.body().close();
+            } catch (IOException e) {
+                LOG.warn("Streaming response body can't be closed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return The original JDK {@link HttpResponse} with not read body
+     */
+    @Override
+    public HttpResponse<InputStream> getOriginalResponse() {
+        return response;
+    }
+
+    private IllegalStateException notBuffered(String method) {
+        return new IllegalStateException(method + "() needs the buffered body, streaming response body can only be read with asInputStream(): " + response.uri());
+    }
+}
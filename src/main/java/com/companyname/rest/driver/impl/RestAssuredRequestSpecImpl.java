@@ -6,6 +6,7 @@ import com.companyname.rest.authentication.DefaultAuthFunction;
 import com.companyname.rest.config.RestConstants;
 import com.companyname.rest.driver.HttpMethod;
 import com.companyname.rest.driver.IRequestSpec;
+import com.companyname.rest.logging.HarRecorder;
 import com.companyname.rest.logging.RALogger;
 import io.restassured.RestAssured;
 import io.restassured.config.EncoderConfig;
@@ -23,12 +24,15 @@ import java.util.function.Function;
 public class RestAssuredRequestSpecImpl implements IRequestSpec {
     static {
         RestAssured.filters(new RALogger.LogFilter());
+        if (HarRecorder.isEnabled()) {
+            RestAssured.filters(new HarRecorder.HarFilter());
+        }
         RestAssured.config = RestAssured.config()
                 .encoderConfig(EncoderConfig.encoderConfig().appendDefaultContentCharsetToContentTypeIfUndefined(false))
                 .objectMapperConfig(new ObjectMapperConfig(ObjectMapperType.GSON))
-                .httpClient(HttpClientConfig.httpClientConfig()
+                .httpClient(RestConnectionPool.configure(HttpClientConfig.httpClientConfig()
                         .setParam("http.socket.timeout", Integer.valueOf(PropertyReader.getProperty(RestConstants.Properties.REST_RESPONSE_TIMEOUT, "180000")))
-                        .setParam("http.connection.timeout", Integer.valueOf(PropertyReader.getProperty(RestConstants.Properties.REST_RESPONSE_TIMEOUT, "180000"))));
+                        .setParam("http.connection.timeout", Integer.valueOf(PropertyReader.getProperty(RestConstants.Properties.REST_RESPONSE_TIMEOUT, "180000")))));
     }
 
     private final RequestSpecification spec;
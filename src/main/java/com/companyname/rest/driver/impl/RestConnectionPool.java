@@ -0,0 +1,176 @@
+package com.companyname.rest.driver.impl;
+
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.config.RestConstants;
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keep-alive connections shared by all requests of both drivers.
+ * <p>
+ * RestAssured creates a client per request and shuts its connection manager down afterwards, so its clients get
+ * a view of one pooling manager which ignores the shutdown. Idle and expired connections are closed by a daemon thread.
+ * The JDK {@link java.net.http.HttpClient} pools connections itself, its pool is configured by system properties
+ * which are set from the same properties unless they are already set.
+ * <p>
+ * Properties:
+ * <ul>
+ * <li>'rest.pool.enabled' - 'true' by default, 'false' restores a connection per request for RestAssured</li>
+ * <li>'rest.pool.max.total' - connections to all hosts, 200 by default</li>
+ * <li>'rest.pool.max.per.route' - connections to one host, 50 by default</li>
+ * <li>'rest.pool.keep.alive' - ms to keep a connection if the server doesn't limit it, 30000 by default</li>
+ * <li>'rest.pool.idle.timeout' - ms after which idle connections are closed, 60000 by default</li>
+ * <li>'rest.pool.eviction.interval' - ms between idle connection checks, 5000 by default</li>
+ * </ul>
+ */
+public final class RestConnectionPool {
+    private static final Logger LOG = LogManager.getLogger(RestConnectionPool.class);
+    private static final boolean ENABLED = PropertyReader.getProperty(RestConstants.Properties.REST_POOL_ENABLED, true);
+    private static final int MAX_TOTAL = Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.REST_POOL_MAX_TOTAL, "200"));
+    private static final int MAX_PER_ROUTE = Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.REST_POOL_MAX_PER_ROUTE, "50"));
+    private static final long KEEP_ALIVE = Long.parseLong(PropertyReader.getProperty(RestConstants.Properties.REST_POOL_KEEP_ALIVE, "30000"));
+    private static final long IDLE_TIMEOUT = Long.parseLong(PropertyReader.getProperty(RestConstants.Properties.REST_POOL_IDLE_TIMEOUT, "60000"));
+    private static final long EVICTION_INTERVAL = Long.parseLong(PropertyReader.getProperty(RestConstants.Properties.REST_POOL_EVICTION_INTERVAL, "5000"));
+    private static final ConnectionKeepAliveStrategy KEEP_ALIVE_STRATEGY = (response, context) -> {
+        long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return serverKeepAlive > 0 ? Math.min(serverKeepAlive, KEEP_ALIVE) : KEEP_ALIVE;
+    };
+
+    private static PoolingClientConnectionManager pool;
+    private static ClientConnectionManager sharedManager;
+    private static ScheduledExecutorService evictor;
+
+    private RestConnectionPool() {
+    }
+
+    /**
+     * @param config RestAssured client config
+     * @return Config creating clients on the shared pool, the same config if the pool is disabled
+     */
+    public static HttpClientConfig configure(HttpClientConfig config) {
+        if (!ENABLED) {
+            return config;
+        }
+        return config.httpClientFactory(() -> {
+            DefaultHttpClient client = new DefaultHttpClient(getSharedManager());
+            client.setKeepAliveStrategy(KEEP_ALIVE_STRATEGY);
+            return client;
+        });
+    }
+
+    /**
+     * Sets JDK HttpClient pool system properties, has to be called before the first JDK HttpClient is created.
+     */
+    public static void configureJdkHttpClient() {
+        if (System.getProperty("jdk.httpclient.connectionPoolSize") == null) {
+            System.setProperty("jdk.httpclient.connectionPoolSize", String.valueOf(MAX_TOTAL));
+        }
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", String.valueOf(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(KEEP_ALIVE))));
+        }
+    }
+
+    /**
+     * @return Statistics of the RestAssured connection pool (leased, pending, available connections), all zeros if the pool isn't used
+     */
+    public static synchronized PoolStats getStats() {
+        return pool == null ? new PoolStats(0, 0, 0, MAX_TOTAL) : pool.getTotalStats();
+    }
+
+    /**
+     * Closes all connections of the RestAssured pool and stops the eviction thread, a new pool is created on the next use.
+     */
+    public static synchronized void shutdown() {
+        if (pool == null) {
+            return;
+        }
+        evictor.shutdownNow();
+        pool.shutdown();
+        LOG.debug("Connection pool has been shut down");
+        pool = null;
+        sharedManager = null;
+        evictor = null;
+    }
+
+    private static synchronized ClientConnectionManager getSharedManager() {
+        if (sharedManager == null) {
+            PoolingClientConnectionManager newPool = new PoolingClientConnectionManager();
+            newPool.setMaxTotal(MAX_TOTAL);
+            newPool.setDefaultMaxPerRoute(MAX_PER_ROUTE);
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rest-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(() -> evict(newPool), EVICTION_INTERVAL, EVICTION_INTERVAL, TimeUnit.MILLISECONDS);
+            pool = newPool;
+            sharedManager = new SharedConnectionManager(newPool);
+        }
+        return sharedManager;
+    }
+
+    private static void evict(PoolingClientConnectionManager target) {
+        try {
+            target.closeExpiredConnections();
+            target.closeIdleConnections(IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+            LOG.debug("Connection pool: {}", target.getTotalStats());
+        } catch (RuntimeException e) {
+            LOG.warn("Idle connections can't be closed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pool view given to RestAssured clients, shutdown of a client doesn't close the shared connections.
+     */
+    private static class SharedConnectionManager implements ClientConnectionManager {
+        private final ClientConnectionManager delegate;
+
+        private SharedConnectionManager(ClientConnectionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public SchemeRegistry getSchemeRegistry() {
+            return delegate.getSchemeRegistry();
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            return delegate.requestConnection(route, state);
+        }
+
+        @Override
+        public void releaseConnection(ManagedClientConnection connection, long validDuration, TimeUnit timeUnit) {
+            delegate.releaseConnection(connection, validDuration, timeUnit);
+        }
+
+        @Override
+        public void closeIdleConnections(long idletime, TimeUnit timeUnit) {
+            delegate.closeIdleConnections(idletime, timeUnit);
+        }
+
+        @Override
+        public void closeExpiredConnections() {
+            delegate.closeExpiredConnections();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
@@ -1,24 +1,152 @@
 package com.companyname.rest.driver.model;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
 
-public class MergeableFields {
+public class MergeableFields implements Cloneable {
+    private static final ClassValue<FieldPlan> PLANS = new ClassValue<FieldPlan>() {
+        @Override
+        protected FieldPlan computeValue(Class<?> type) {
+            return new FieldPlan(type);
+        }
+    };
 
     public <T> T merge(T mergeFrom) {
         Class<?> clazz = this.getClass();
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-            Object remoteValue = null;
-            try {
-                remoteValue = field.get(mergeFrom);
-                if (null == field.get(this) && null != remoteValue && !MergeableFields.class.isAssignableFrom(field.getType())) {
-                    field.set(this, remoteValue);
+        for (FieldAccessor field : PLANS.get(clazz).mergeFields) {
+            Object remoteValue = ((MergeableFields) mergeFrom).resolve(field);
+            if (null == resolve(field) && null != remoteValue) {
+                field.set(this, remoteValue);
+            }
+        }
+        return (T) this;
+    }
+
+    /**
+     * @return Object which values are read when fields of this object are not set, see {@link RestDDModel.Step#inherit}
+     */
+    protected MergeableFields getParent() {
+        return null;
+    }
+
+    /**
+     * Maps field values, values inherited from the parent are mapped as well, nested {@link MergeableFields} are mapped the same way.
+     * Object is copied only if some of its values has been changed, unchanged values are shared with the copy.
+     *
+     * @param valueMapper Returns the same instance for values which shouldn't be changed
+     * @return This object if nothing has changed, otherwise the shallow copy with the mapped values
+     */
+    public <T> T map(UnaryOperator<Object> valueMapper) {
+        MergeableFields result = this;
+        for (FieldAccessor field : PLANS.get(this.getClass()).mapFields) {
+            Object value = field.nested ? field.get(this) : resolve(field);
+            Object mappedValue = value instanceof MergeableFields ? ((MergeableFields) value).map(valueMapper) : valueMapper.apply(value);
+            if (mappedValue != value) {
+                if (result == this) {
+                    result = copy();
+                }
+                try {
+                    field.set(result, mappedValue);
+                } catch (ClassCastException e) {
+                    throw new RuntimeException("Parsed value can't be set to " + field.name + ", check test data", e);
+                }
+            }
+        }
+        return (T) result;
+    }
+
+    private Object resolve(FieldAccessor field) {
+        Object value = field.get(this);
+        for (MergeableFields parent = getParent(); value == null && parent != null && field.owner.isInstance(parent); parent = parent.getParent()) {
+            value = field.get(parent);
+        }
+        return value;
+    }
+
+    protected MergeableFields copy() {
+        try {
+            return (MergeableFields) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException("Not possible to copy " + this.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Field accessors of a class resolved once: merge uses all instance fields declared by the class itself
+     * except nested {@link MergeableFields}, map uses instance fields of the whole hierarchy. Transient fields (e.g. parent) are skipped.
+     */
+    private static class FieldPlan {
+        private final List<FieldAccessor> mergeFields = new ArrayList<>();
+        private final List<FieldAccessor> mapFields = new ArrayList<>();
+
+        private FieldPlan(Class<?> type) {
+            for (Field field : type.getDeclaredFields()) {
+                if (isValueField(field) && !MergeableFields.class.isAssignableFrom(field.getType())) {
+                    mergeFields.add(new FieldAccessor(type, field));
                 }
+            }
+            for (Class<?> clazz = type; clazz != MergeableFields.class && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    if (isValueField(field) && !field.isSynthetic()) {
+                        mapFields.add(new FieldAccessor(clazz, field));
+                    }
+                }
+            }
+        }
+
+        private static boolean isValueField(Field field) {
+            return !Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers());
+        }
+    }
+
+    private static class FieldAccessor {
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final String name;
+        private final Class<?> owner;
+        private final boolean nested;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private FieldAccessor(Class<?> clazz, Field field) {
+            this.name = clazz.getSimpleName() + "." + field.getName();
+            this.owner = clazz;
+            this.nested = MergeableFields.class.isAssignableFrom(field.getType());
+            try {
+                field.setAccessible(true);
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
             } catch (IllegalAccessException e) {
                 throw new RuntimeException("Not possible to merge GlobalConfig into " + clazz.getSimpleName(), e);
             }
         }
-        return (T) this;
-    }
 
+        private Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException("Not possible to read " + name, e);
+            }
+        }
+
+        private void set(Object target, Object value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException("Not possible to set " + name, e);
+            }
+        }
+    }
 }
@@ -67,13 +67,19 @@ public class RestDDModel {
         return entryList.get(entryList.size() - 1).getValue();
     }
 
+    /**
+     * Links steps to the global config instead of copying its values, so one config instance is shared by all scenarios.
+     *
+     * @see Step#inherit(Step)
+     */
     public RestDDModel merge(Step mergeFrom) {
         Map<String, Step> stepsMap = this.getSteps();
-        stepsMap.keySet().forEach(stepKey -> stepsMap.get(stepKey).merge(mergeFrom));
+        stepsMap.keySet().forEach(stepKey -> stepsMap.get(stepKey).inherit(mergeFrom));
         return this;
     }
 
     public class Request extends MergeableFields {
+        transient Request parent;
         String baseUri;
         String endpoint;
         String method;
@@ -88,7 +94,7 @@ public class RestDDModel {
         String authFunctionName;
 
         public String getBaseUri() {
-            return baseUri;
+            return baseUri != null || parent == null ? baseUri : parent.getBaseUri();
         }
 
         public Request setBaseUri(String baseUri) {
@@ -97,7 +103,7 @@ public class RestDDModel {
         }
 
         public String getEndpoint() {
-            return endpoint;
+            return endpoint != null || parent == null ? endpoint : parent.getEndpoint();
         }
 
         public Request setEndpoint(String endpoint) {
@@ -106,7 +112,7 @@ public class RestDDModel {
         }
 
         public String getMethod() {
-            return method;
+            return method != null || parent == null ? method : parent.getMethod();
         }
 
         public Request setMethod(String method) {
@@ -115,7 +121,7 @@ public class RestDDModel {
         }
 
         public Map getHeaders() {
-            return headers;
+            return headers != null || parent == null ? headers : parent.getHeaders();
         }
 
         public Request setHeaders(Map headers) {
@@ -124,7 +130,7 @@ public class RestDDModel {
         }
 
         public Object getBody() {
-            return body;
+            return body != null || parent == null ? body : parent.getBody();
         }
 
         public Request setBody(Object body) {
@@ -133,7 +139,7 @@ public class RestDDModel {
         }
 
         public Map getParams() {
-            return params;
+            return params != null || parent == null ? params : parent.getParams();
         }
 
         public Request setParams(Map params) {
@@ -142,7 +148,7 @@ public class RestDDModel {
         }
 
         public Map getQueryParams() {
-            return queryParams;
+            return queryParams != null || parent == null ? queryParams : parent.getQueryParams();
         }
 
         public Request setQueryParams(Map queryParams) {
@@ -151,7 +157,7 @@ public class RestDDModel {
         }
 
         public Map getPathParams() {
-            return pathParams;
+            return pathParams != null || parent == null ? pathParams : parent.getPathParams();
         }
 
         public Request setPathParams(Map pathParams) {
@@ -160,7 +166,7 @@ public class RestDDModel {
         }
 
         public String getContentType() {
-            return contentType;
+            return contentType != null || parent == null ? contentType : parent.getContentType();
         }
 
         public Request setContentType(String contentType) {
@@ -170,6 +176,9 @@ public class RestDDModel {
 
         public Boolean getAuthRequired() {
             if (null == authRequired) {
+                if (parent != null) {
+                    return parent.getAuthRequired();
+                }
                 authRequired = true;
             }
             return authRequired;
@@ -181,7 +190,7 @@ public class RestDDModel {
         }
 
         public String getAuthToken() {
-            return authToken;
+            return authToken != null || parent == null ? authToken : parent.getAuthToken();
         }
 
         public Request setAuthToken(String authToken) {
@@ -191,7 +200,7 @@ public class RestDDModel {
 
 
         public String getAuthFunctionName() {
-            return authFunctionName;
+            return authFunctionName != null || parent == null ? authFunctionName : parent.getAuthFunctionName();
         }
 
         public Request setAuthFunctionName(String authFunctionName) {
@@ -199,17 +208,36 @@ public class RestDDModel {
             return this;
         }
 
+        /**
+         * @see Step#inherit(Step)
+         */
+        public Request inherit(Request parent) {
+            Request previous = this.parent;
+            this.parent = null;
+            if (previous != null) {
+                super.merge(previous);
+            }
+            this.parent = parent;
+            return this;
+        }
+
+        @Override
+        protected MergeableFields getParent() {
+            return parent;
+        }
     }
 
     public class Step extends MergeableFields {
+        transient Step parent;
         String stepName;
         String stepDescription;
         Request request;
         String expectedStatusCode;
         Object expectedResponse;
+        Boolean streaming;
 
         public String getStepName() {
-            return stepName;
+            return stepName != null || parent == null ? stepName : parent.getStepName();
         }
 
         public Step setStepName(String stepName) {
@@ -218,7 +246,7 @@ public class RestDDModel {
         }
 
         public String getStepDescription() {
-            return stepDescription;
+            return stepDescription != null || parent == null ? stepDescription : parent.getStepDescription();
         }
 
         public Step setStepDescription(String stepDescription) {
@@ -237,6 +265,9 @@ public class RestDDModel {
 
         public String getExpectedStatusCode() {
             if (null == expectedStatusCode) {
+                if (parent != null) {
+                    return parent.getExpectedStatusCode();
+                }
                 expectedStatusCode = "-1";
             }
             return expectedStatusCode;
@@ -248,11 +279,11 @@ public class RestDDModel {
         }
 
         public Integer getExpectedStatusCodeAsInt() {
-            return Integer.parseInt(expectedStatusCode);
+            return Integer.parseInt(getExpectedStatusCode());
         }
 
         public Object getExpectedResponse() {
-            return expectedResponse;
+            return expectedResponse != null || parent == null ? expectedResponse : parent.getExpectedResponse();
         }
 
         public Step setExpectedResponse(Object expectedResponse) {
@@ -261,7 +292,47 @@ public class RestDDModel {
         }
 
         public String getExpectedResponseString() {
-            return RestTestData.gsonBuilder.serializeNulls().create().toJson(expectedResponse);
+            return RestTestData.gsonSerializeNulls.toJson(getExpectedResponse());
+        }
+
+        /**
+         * @return true if the response body isn't buffered (see {@link com.companyname.rest.driver.IRequestSpec#streaming()}), false by default
+         */
+        public Boolean getStreaming() {
+            if (null == streaming) {
+                return parent != null && parent.getStreaming();
+            }
+            return streaming;
+        }
+
+        public Step setStreaming(Boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
+        /**
+         * Links the step to the parent config (e.g. globalConfig), fields which are not set are read from the parent
+         * at read time, request is linked to the parent request the same way. The parent is shared by many steps,
+         * so it shouldn't be changed once linked. Values of a previously linked parent are copied into the step.
+         *
+         * @param parent Step to read unset fields from
+         */
+        public Step inherit(Step parent) {
+            Step previous = this.parent;
+            this.parent = null;
+            if (previous != null) {
+                super.merge(previous);
+            }
+            this.parent = parent;
+            if (this.request != null && parent.getRequest() != null) {
+                this.request.inherit(parent.getRequest());
+            }
+            return this;
+        }
+
+        @Override
+        protected MergeableFields getParent() {
+            return parent;
         }
 
         @Override
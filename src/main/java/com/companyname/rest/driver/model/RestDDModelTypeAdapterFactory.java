@@ -0,0 +1,315 @@
+package com.companyname.rest.driver.model;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming adapters of {@link RestDDModel}, {@link RestDDModel.Step} and {@link RestDDModel.Request}, so DD files
+ * are bound without reflection. Member names and value conversions are the same as with the reflective adapter,
+ * e.g. numbers are accepted for string fields ("expectedStatusCode": 200). Unknown members are skipped,
+ * inherited values (see {@link RestDDModel.Step#inherit}) are not written.
+ * Registered in {@link com.companyname.rest.data.RestTestData#gsonBuilder}.
+ */
+public class RestDDModelTypeAdapterFactory implements TypeAdapterFactory {
+    private static final TypeToken<Map<String, String>> STRING_MAP = new TypeToken<Map<String, String>>() {
+    };
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType != RestDDModel.class && rawType != RestDDModel.Step.class && rawType != RestDDModel.Request.class) {
+            return null;
+        }
+        ModelAdapter adapter = new ModelAdapter(gson.getAdapter(Object.class), gson.getAdapter(Map.class), gson.getAdapter(STRING_MAP));
+        if (rawType == RestDDModel.class) {
+            return (TypeAdapter<T>) adapter;
+        }
+        if (rawType == RestDDModel.Step.class) {
+            return (TypeAdapter<T>) adapter.stepAdapter();
+        }
+        return (TypeAdapter<T>) adapter.requestAdapter();
+    }
+
+    private static class ModelAdapter extends TypeAdapter<RestDDModel> {
+        private final TypeAdapter<Object> objectAdapter;
+        private final TypeAdapter<Map> mapAdapter;
+        private final TypeAdapter<Map<String, String>> stringMapAdapter;
+
+        private ModelAdapter(TypeAdapter<Object> objectAdapter, TypeAdapter<Map> mapAdapter, TypeAdapter<Map<String, String>> stringMapAdapter) {
+            this.objectAdapter = objectAdapter;
+            this.mapAdapter = mapAdapter;
+            this.stringMapAdapter = stringMapAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, RestDDModel model) throws IOException {
+            if (model == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeString(out, "testDescription", model.testDescription);
+            writeString(out, "relativeFileName", model.relativeFileName);
+            writeString(out, "relativeScenarioName", model.relativeScenarioName);
+            out.name("customParameters");
+            stringMapAdapter.write(out, model.customParameters);
+            out.name("steps");
+            if (model.steps == null) {
+                out.nullValue();
+            } else {
+                out.beginObject();
+                for (Map.Entry<String, RestDDModel.Step> step : model.steps.entrySet()) {
+                    out.name(step.getKey());
+                    writeStep(out, step.getValue());
+                }
+                out.endObject();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RestDDModel read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            RestDDModel model = new RestDDModel();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "testDescription":
+                        model.testDescription = readString(in);
+                        break;
+                    case "relativeFileName":
+                        model.relativeFileName = readString(in);
+                        break;
+                    case "relativeScenarioName":
+                        model.relativeScenarioName = readString(in);
+                        break;
+                    case "customParameters":
+                        model.customParameters = stringMapAdapter.read(in);
+                        break;
+                    case "steps":
+                        model.steps = readSteps(in, model);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return model;
+        }
+
+        private Map<String, RestDDModel.Step> readSteps(JsonReader in, RestDDModel model) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Map<String, RestDDModel.Step> steps = new LinkedHashMap<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                RestDDModel.Step step = readStep(in, model);
+                if (steps.put(name, step) != null) {
+                    throw new RuntimeException("Error parsing test data, duplicate step: " + name);
+                }
+            }
+            in.endObject();
+            return steps;
+        }
+
+        private void writeStep(JsonWriter out, RestDDModel.Step step) throws IOException {
+            if (step == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeString(out, "stepName", step.stepName);
+            writeString(out, "stepDescription", step.stepDescription);
+            out.name("request");
+            writeRequest(out, step.request);
+            writeString(out, "expectedStatusCode", step.expectedStatusCode);
+            out.name("expectedResponse");
+            objectAdapter.write(out, step.expectedResponse);
+            out.name("streaming").value(step.streaming);
+            out.endObject();
+        }
+
+        private RestDDModel.Step readStep(JsonReader in, RestDDModel model) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            RestDDModel.Step step = model.new Step();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "stepName":
+                        step.stepName = readString(in);
+                        break;
+                    case "stepDescription":
+                        step.stepDescription = readString(in);
+                        break;
+                    case "request":
+                        step.request = readRequest(in, model);
+                        break;
+                    case "expectedStatusCode":
+                        step.expectedStatusCode = readString(in);
+                        break;
+                    case "expectedResponse":
+                        step.expectedResponse = objectAdapter.read(in);
+                        break;
+                    case "streaming":
+                        step.streaming = readBoolean(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return step;
+        }
+
+        private void writeRequest(JsonWriter out, RestDDModel.Request request) throws IOException {
+            if (request == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeString(out, "baseUri", request.baseUri);
+            writeString(out, "endpoint", request.endpoint);
+            writeString(out, "method", request.method);
+            out.name("headers");
+            mapAdapter.write(out, request.headers);
+            out.name("body");
+            objectAdapter.write(out, request.body);
+            out.name("params");
+            mapAdapter.write(out, request.params);
+            out.name("queryParams");
+            mapAdapter.write(out, request.queryParams);
+            out.name("pathParams");
+            mapAdapter.write(out, request.pathParams);
+            writeString(out, "contentType", request.contentType);
+            out.name("authRequired").value(request.authRequired);
+            writeString(out, "authToken", request.authToken);
+            writeString(out, "authFunctionName", request.authFunctionName);
+            out.endObject();
+        }
+
+        private RestDDModel.Request readRequest(JsonReader in, RestDDModel model) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            RestDDModel.Request request = model.new Request();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "baseUri":
+                        request.baseUri = readString(in);
+                        break;
+                    case "endpoint":
+                        request.endpoint = readString(in);
+                        break;
+                    case "method":
+                        request.method = readString(in);
+                        break;
+                    case "headers":
+                        request.headers = mapAdapter.read(in);
+                        break;
+                    case "body":
+                        request.body = objectAdapter.read(in);
+                        break;
+                    case "params":
+                        request.params = mapAdapter.read(in);
+                        break;
+                    case "queryParams":
+                        request.queryParams = mapAdapter.read(in);
+                        break;
+                    case "pathParams":
+                        request.pathParams = mapAdapter.read(in);
+                        break;
+                    case "contentType":
+                        request.contentType = readString(in);
+                        break;
+                    case "authRequired":
+                        request.authRequired = readBoolean(in);
+                        break;
+                    case "authToken":
+                        request.authToken = readString(in);
+                        break;
+                    case "authFunctionName":
+                        request.authFunctionName = readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return request;
+        }
+
+        /**
+         * Standalone steps (e.g. globalConfig) belong to an empty model.
+         */
+        private TypeAdapter<RestDDModel.Step> stepAdapter() {
+            return new TypeAdapter<RestDDModel.Step>() {
+                @Override
+                public void write(JsonWriter out, RestDDModel.Step step) throws IOException {
+                    writeStep(out, step);
+                }
+
+                @Override
+                public RestDDModel.Step read(JsonReader in) throws IOException {
+                    return readStep(in, new RestDDModel());
+                }
+            };
+        }
+
+        private TypeAdapter<RestDDModel.Request> requestAdapter() {
+            return new TypeAdapter<RestDDModel.Request>() {
+                @Override
+                public void write(JsonWriter out, RestDDModel.Request request) throws IOException {
+                    writeRequest(out, request);
+                }
+
+                @Override
+                public RestDDModel.Request read(JsonReader in) throws IOException {
+                    return readRequest(in, new RestDDModel());
+                }
+            };
+        }
+
+        private static void writeString(JsonWriter out, String name, String value) throws IOException {
+            out.name(name).value(value);
+        }
+
+        private static String readString(JsonReader in) throws IOException {
+            JsonToken token = in.peek();
+            if (token == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return token == JsonToken.BOOLEAN ? Boolean.toString(in.nextBoolean()) : in.nextString();
+        }
+
+        private static Boolean readBoolean(JsonReader in) throws IOException {
+            JsonToken token = in.peek();
+            if (token == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return token == JsonToken.STRING ? Boolean.parseBoolean(in.nextString()) : in.nextBoolean();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.companyname.rest.logging;
+
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.config.RestConstants;
+import com.companyname.rest.data.RestTestData;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.apache.logging.log4j.Level;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request/Response logging settings of both drivers, resolved once.
+ * <ul>
+ * <li>'rest.log.detail' - NONE, STATUS (request line and status), HEADERS (and headers), ALL (and bodies, default)</li>
+ * <li>'rest.log.body.limit' - bodies longer than this number of bytes are truncated and not pretty printed,
+ * 1048576 by default, -1 - no limit</li>
+ * <li>'rest.log.success.sampling' - only every N-th successful exchange is logged, 1 by default.
+ * Failures (connection errors and status 400+) are always logged</li>
+ * <li>'rest.pretty.log' - pretty print json bodies, 'true' by default</li>
+ * </ul>
+ * Successful exchanges are logged on INFO, failures on WARN, exchanges are not formatted at all if the level is disabled.
+ */
+public final class ExchangeLogConfig {
+    public enum Detail {NONE, STATUS, HEADERS, ALL}
+
+    private static final ExchangeLogConfig INSTANCE = new ExchangeLogConfig(
+            Detail.valueOf(PropertyReader.getProperty(RestConstants.Properties.REST_LOG_DETAIL, "ALL").toUpperCase()),
+            Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.REST_LOG_BODY_LIMIT, "1048576")),
+            Math.max(1, Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.REST_LOG_SUCCESS_SAMPLING, "1"))),
+            PropertyReader.getProperty(RestConstants.Properties.LOG_PRETTY_JSON, true));
+    private static final Gson PRETTY_GSON = RestTestData.gson.newBuilder().setPrettyPrinting().create();
+
+    private final Detail detail;
+    private final int bodyLimit;
+    private final int successSampling;
+    private final boolean pretty;
+    private final AtomicLong successes = new AtomicLong();
+
+    private ExchangeLogConfig(Detail detail, int bodyLimit, int successSampling, boolean pretty) {
+        this.detail = detail;
+        this.bodyLimit = bodyLimit;
+        this.successSampling = successSampling;
+        this.pretty = pretty;
+    }
+
+    public static ExchangeLogConfig get() {
+        return INSTANCE;
+    }
+
+    public Detail getDetail() {
+        return detail;
+    }
+
+    public int getBodyLimit() {
+        return bodyLimit;
+    }
+
+    public int getSuccessSampling() {
+        return successSampling;
+    }
+
+    public boolean isPretty() {
+        return pretty;
+    }
+
+    /**
+     * @param failure Connection error or error status
+     * @return Level to log the exchange with, null if the exchange is skipped
+     */
+    Level getLevel(boolean failure) {
+        if (detail == Detail.NONE) {
+            return null;
+        }
+        Level level = failure ? Level.WARN : Level.INFO;
+        if (!RALogger.isEnabled(level)) {
+            return null;
+        }
+        if (!failure && successSampling > 1 && successes.getAndIncrement() % successSampling != 0) {
+            return null;
+        }
+        return level;
+    }
+
+    boolean includes(Detail part) {
+        return detail.compareTo(part) >= 0;
+    }
+
+    boolean exceedsLimit(long length) {
+        return bodyLimit >= 0 && length > bodyLimit;
+    }
+
+    /**
+     * @return Body truncated at the limit, json bodies within the limit are pretty printed if enabled
+     */
+    String formatBody(byte[] body) {
+        if (exceedsLimit(body.length)) {
+            return new String(body, 0, bodyLimit, StandardCharsets.UTF_8) + "\n... <truncated, " + body.length + " bytes>";
+        }
+        String text = new String(body, StandardCharsets.UTF_8);
+        if (!pretty || !(text.trim().startsWith("{") || text.trim().startsWith("["))) {
+            return text;
+        }
+        try {
+            return PRETTY_GSON.toJson(JsonParser.parseString(text));
+        } catch (JsonParseException e) {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.companyname.rest.logging;
+
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.config.RestConstants;
+import com.google.gson.stream.JsonWriter;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records all exchanges of both drivers into a file of HAR 1.2 entries, one json entry per line (NDJSON),
+ * enabled by <b>'rest.har.path'</b>.
+ * <p>
+ * Request threads only put the captured exchange into a queue bounded by <b>'rest.har.queue.size'</b> exchanges
+ * (10000 by default) and <b>'rest.har.queue.bytes'</b> bytes of their bodies (67108864 by default),
+ * exchanges which don't fit are dropped and counted, see {@link #getDropped()}. Bodies are referenced, not copied,
+ * entries are serialized by a daemon writer thread. Bodies longer than <b>'rest.har.body.limit'</b> bytes
+ * (65536 by default) are written by the writer thread to side files in the '&lt;rest.har.path&gt;.bodies' folder
+ * and are referenced by the '_file' member of the entry content.
+ * <p>
+ * Timings are measured around the call: 'wait' until response headers are received, 'receive' until the body is read.
+ * RestAssured exchanges are recorded by {@link HarFilter}, which runs right before sending, so only the total time is known.
+ */
+public final class HarRecorder {
+    private static final Logger LOG = LogManager.getLogger(HarRecorder.class);
+    private static final String HAR_PATH = PropertyReader.getProperty(RestConstants.Properties.REST_HAR_PATH, "");
+    private static final int QUEUE_SIZE = Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.REST_HAR_QUEUE_SIZE, "10000"));
+    private static final long QUEUE_BYTES = Long.parseLong(PropertyReader.getProperty(RestConstants.Properties.REST_HAR_QUEUE_BYTES, "67108864"));
+    private static final int BODY_LIMIT = Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.REST_HAR_BODY_LIMIT, "65536"));
+    private static final Exchange END = new Exchange();
+    private static final HarRecorder INSTANCE = HAR_PATH.isEmpty() ? null : new HarRecorder(Paths.get(HAR_PATH));
+
+    private final Path path;
+    private final Path bodies;
+    private final BlockingQueue<Exchange> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private HarRecorder(Path path) {
+        this.path = path;
+        this.bodies = path.resolveSibling(path.getFileName() + ".bodies");
+        this.writer = new Thread(this::write, "rest-har-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "rest-har-close"));
+        LOG.info("HAR recording to {}", path);
+    }
+
+    public static boolean isEnabled() {
+        return INSTANCE != null;
+    }
+
+    /**
+     * @return Number of exchanges written
+     */
+    public static long getRecorded() {
+        return INSTANCE == null ? 0 : INSTANCE.recorded.get();
+    }
+
+    /**
+     * @return Number of exchanges dropped because the writer couldn't keep up
+     */
+    public static long getDropped() {
+        return INSTANCE == null ? 0 : INSTANCE.dropped.get();
+    }
+
+    /**
+     * Writes queued exchanges and closes the file, later exchanges are dropped. Called on JVM shutdown.
+     */
+    public static void shutdown() {
+        if (INSTANCE != null) {
+            INSTANCE.close();
+        }
+    }
+
+    /**
+     * @return Timing of a JDK HttpClient call, null if recording is disabled
+     */
+    public static Timing start() {
+        return INSTANCE == null ? null : new Timing();
+    }
+
+    /**
+     * @param timing  Timing from {@link #start()}
+     * @param handler Handler reading the body
+     * @return Handler noting the time response headers are received
+     */
+    public static <T> HttpResponse.BodyHandler<T> bodyHandler(Timing timing, HttpResponse.BodyHandler<T> handler) {
+        if (timing == null) {
+            return handler;
+        }
+        return responseInfo -> {
+            timing.headers = System.nanoTime();
+            return handler.apply(responseInfo);
+        };
+    }
+
+    /**
+     * Records JDK HttpClient exchange, body of a streaming response isn't recorded.
+     *
+     * @param timing Timing from {@link #start()}, nothing is recorded if null
+     */
+    public static void record(Timing timing, HttpRequest request, byte[] requestBody, HttpResponse<?> response, Throwable error) {
+        if (timing == null) {
+            return;
+        }
+        long end = System.nanoTime();
+        Exchange exchange = new Exchange();
+        exchange.started = timing.started;
+        exchange.method = request.method();
+        exchange.url = request.uri().toString();
+        exchange.requestHeaders = toList(request.headers());
+        exchange.requestMimeType = request.headers().firstValue("Content-Type").orElse(null);
+        exchange.requestBody = requestBody;
+        exchange.total = end - timing.start;
+        if (response != null) {
+            exchange.httpVersion = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+            exchange.status = response.statusCode();
+            exchange.responseHeaders = toList(response.headers());
+            exchange.responseMimeType = response.headers().firstValue("Content-Type").orElse(null);
+            exchange.responseBody = response.body() instanceof byte[] ? (byte[]) response.body() : null;
+            exchange.wait = (timing.headers == 0 ? end : timing.headers) - timing.start;
+        } else {
+            exchange.wait = exchange.total;
+        }
+        exchange.error = error == null ? null : String.valueOf(error.getMessage());
+        INSTANCE.enqueue(exchange);
+    }
+
+    private static List<Map.Entry<String, String>> toList(HttpHeaders headers) {
+        List<Map.Entry<String, String>> list = new ArrayList<>();
+        headers.map().forEach((name, values) -> values.forEach(value -> list.add(new AbstractMap.SimpleImmutableEntry<>(name, value))));
+        return list;
+    }
+
+    private static List<Map.Entry<String, String>> toList(Iterable<Header> headers) {
+        List<Map.Entry<String, String>> list = new ArrayList<>();
+        headers.forEach(header -> list.add(new AbstractMap.SimpleImmutableEntry<>(header.getName(), header.getValue())));
+        return list;
+    }
+
+    private void enqueue(Exchange exchange) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return;
+        }
+        exchange.id = ids.incrementAndGet();
+        exchange.correlationId = ThreadContext.get(RALogger.CORRELATION_ID);
+        exchange.requestSize = exchange.requestBody == null ? -1 : exchange.requestBody.length;
+        exchange.responseSize = exchange.responseBody == null ? -1 : exchange.responseBody.length;
+        long bytes = exchange.bytes();
+        if (queuedBytes.addAndGet(bytes) > QUEUE_BYTES && bytes > 0 || !queue.offer(exchange)) {
+            queuedBytes.addAndGet(-bytes);
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return Side file the body is written to, null if the body is within the limit or can't be written
+     */
+    private Path spill(byte[] body, String name) {
+        if (body == null || body.length <= BODY_LIMIT) {
+            return null;
+        }
+        Path file = bodies.resolve(name + ".bin");
+        try {
+            Files.createDirectories(bodies);
+            Files.write(file, body);
+            return file;
+        } catch (IOException e) {
+            LOG.warn("HAR body file {} can't be written: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.offer(END, 10, TimeUnit.SECONDS);
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write() {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                while (true) {
+                    Exchange exchange = queue.poll();
+                    if (exchange == null) {
+                        out.flush();
+                        exchange = queue.take();
+                    }
+                    if (exchange == END) {
+                        break;
+                    }
+                    try {
+                        writeEntry(out, exchange);
+                        recorded.incrementAndGet();
+                    } catch (IOException | RuntimeException e) {
+                        dropped.incrementAndGet();
+                        LOG.warn("HAR entry of {} can't be written: {}", exchange.url, e.getMessage());
+                    } finally {
+                        queuedBytes.addAndGet(-exchange.bytes());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("HAR file {} can't be written, recording has stopped: {}", path, e.getMessage());
+            closed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.get() > 0) {
+            LOG.warn("HAR recording: {} exchanges written, {} dropped", recorded.get(), dropped.get());
+        }
+    }
+
+    private void writeEntry(Writer out, Exchange exchange) throws IOException {
+        Path requestFile = spill(exchange.requestBody, exchange.id + "-request");
+        Path responseFile = spill(exchange.responseBody, exchange.id + "-response");
+        JsonWriter json = new JsonWriter(out);
+        json.setHtmlSafe(false);
+        json.beginObject();
+        json.name("startedDateTime").value(Instant.ofEpochMilli(exchange.started).toString());
+        json.name("time").value(toMillis(exchange.total));
+        if (exchange.correlationId != null) {
+            json.name("_correlationId").value(exchange.correlationId);
+        }
+
+        json.name("request").beginObject();
+        json.name("method").value(exchange.method);
+        json.name("url").value(exchange.url);
+        json.name("httpVersion").value(exchange.httpVersion);
+        json.name("cookies").beginArray().endArray();
+        writeHeaders(json, exchange.requestHeaders);
+        json.name("queryString").beginArray().endArray();
+        if (exchange.requestSize >= 0) {
+            json.name("postData").beginObject();
+            json.name("mimeType").value(exchange.requestMimeType == null ? "" : exchange.requestMimeType);
+            writeBody(json, exchange.requestBody, exchange.requestSize, requestFile, exchange.requestMimeType);
+            json.endObject();
+        }
+        json.name("headersSize").value(-1);
+        json.name("bodySize").value(Math.max(exchange.requestSize, 0));
+        json.endObject();
+
+        json.name("response").beginObject();
+        json.name("status").value(exchange.status);
+        json.name("statusText").value("");
+        json.name("httpVersion").value(exchange.httpVersion);
+        json.name("cookies").beginArray().endArray();
+        writeHeaders(json, exchange.responseHeaders);
+        json.name("content").beginObject();
+        json.name("size").value(Math.max(exchange.responseSize, 0));
+        json.name("mimeType").value(exchange.responseMimeType == null ? "" : exchange.responseMimeType);
+        if (exchange.responseSize >= 0) {
+            writeBody(json, exchange.responseBody, exchange.responseSize, responseFile, exchange.responseMimeType);
+        }
+        json.endObject();
+        json.name("redirectURL").value("");
+        json.name("headersSize").value(-1);
+        json.name("bodySize").value(exchange.responseSize);
+        if (exchange.error != null) {
+            json.name("_error").value(exchange.error);
+        }
+        json.endObject();
+
+        json.name("cache").beginObject().endObject();
+        json.name("timings").beginObject();
+        json.name("send").value(0);
+        json.name("wait").value(toMillis(exchange.wait));
+        json.name("receive").value(toMillis(exchange.total - exchange.wait));
+        json.endObject();
+        json.endObject();
+        // JsonWriter writes straight to the buffered writer, which is flushed once the queue is empty
+        out.write('\n');
+    }
+
+    private static void writeHeaders(JsonWriter json, List<Map.Entry<String, String>> headers) throws IOException {
+        json.name("headers").beginArray();
+        for (Map.Entry<String, String> header : headers) {
+            json.beginObject().name("name").value(header.getKey()).name("value").value(header.getValue()).endObject();
+        }
+        json.endArray();
+    }
+
+    /**
+     * @param file Side file of the body over the limit, null if the body is within the limit or couldn't be written
+     */
+    private void writeBody(JsonWriter json, byte[] body, int size, Path file, String mimeType) throws IOException {
+        if (file != null) {
+            json.name("_file").value(path.getParent() == null ? file.toString() : path.getParent().relativize(file).toString());
+        } else if (size > BODY_LIMIT) {
+            json.name("text").value("");
+            json.name("comment").value("body over the limit couldn't be written to a file");
+        } else if (isText(mimeType)) {
+            json.name("text").value(new String(body, StandardCharsets.UTF_8));
+        } else {
+            json.name("text").value(Base64.getEncoder().encodeToString(body));
+            json.name("encoding").value("base64");
+        }
+    }
+
+    private static boolean isText(String mimeType) {
+        if (mimeType == null) {
+            return true;
+        }
+        String type = mimeType.toLowerCase();
+        return type.startsWith("text/") || type.contains("json") || type.contains("xml") || type.contains("x-www-form-urlencoded") || type.contains("javascript");
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+
+    /**
+     * Call timing, see {@link #start()}.
+     */
+    public static class Timing {
+        private final long started = System.currentTimeMillis();
+        private final long start = System.nanoTime();
+        private volatile long headers;
+    }
+
+    private static class Exchange {
+        private long id;
+        private long started;
+        private String method;
+        private String url;
+        private String httpVersion = "HTTP/1.1";
+        private List<Map.Entry<String, String>> requestHeaders = Collections.emptyList();
+        private String requestMimeType;
+        private byte[] requestBody;
+        private int status;
+        private List<Map.Entry<String, String>> responseHeaders = Collections.emptyList();
+        private String responseMimeType;
+        private byte[] responseBody;
+        private long wait;
+        private long total;
+        private String error;
+        private String correlationId;
+        private int requestSize;
+        private int responseSize;
+
+        private long bytes() {
+            return (long) Math.max(requestSize, 0) + Math.max(responseSize, 0);
+        }
+    }
+
+    /**
+     * Records RestAssured exchanges, register after other filters so the time is measured right around sending.
+     */
+    public static class HarFilter implements Filter {
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+            Timing timing = start();
+            Response response = null;
+            RuntimeException error = null;
+            try {
+                response = ctx.next(requestSpec, responseSpec);
+                return response;
+            } catch (RuntimeException e) {
+                error = e;
+                throw e;
+            } finally {
+                if (timing != null) {
+                    recordExchange(timing, requestSpec, response, error);
+                }
+            }
+        }
+
+        private static void recordExchange(Timing timing, FilterableRequestSpecification requestSpec, Response response, Throwable error) {
+            Exchange exchange = new Exchange();
+            exchange.started = timing.started;
+            exchange.total = System.nanoTime() - timing.start;
+            exchange.wait = exchange.total;
+            exchange.method = requestSpec.getMethod();
+            exchange.url = requestSpec.getURI();
+            exchange.requestHeaders = toList(requestSpec.getHeaders());
+            exchange.requestMimeType = requestSpec.getContentType();
+            Object body = requestSpec.getBody();
+            exchange.requestBody = body == null ? null : body instanceof byte[] ? (byte[]) body : String.valueOf(body).getBytes(StandardCharsets.UTF_8);
+            if (response != null) {
+                exchange.status = response.getStatusCode();
+                exchange.responseHeaders = toList(response.getHeaders());
+                exchange.responseMimeType = response.getContentType();
+                exchange.responseBody = response.asByteArray();
+            }
+            exchange.error = error == null ? null : String.valueOf(error.getMessage());
+            INSTANCE.enqueue(exchange);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.companyname.rest.logging;
+
+import org.apache.logging.log4j.Level;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request/Response logging for {@link com.companyname.rest.driver.impl.HttpClientRequestSpecImpl},
+ * prints exchanges in the same layout as {@link RALogger.LogFilter} does for RestAssured.
+ */
+public class HttpClientLogger {
+    private static final String MESSAGE_SEPARATOR = "~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~\n";
+    private static final ExchangeLogConfig CONFIG = ExchangeLogConfig.get();
+
+    private HttpClientLogger() {
+    }
+
+    /**
+     * Exchange is formatted by the appender thread, request, response and body are immutable.
+     * Body of a streaming response isn't logged.
+     */
+    public static void log(HttpRequest request, byte[] requestBody, HttpResponse<?> response, Throwable error) {
+        Level level = CONFIG.getLevel(response == null || response.statusCode() >= 400);
+        RALogger.logExchange(level, () -> format(request, requestBody, response, error));
+    }
+
+    private static String format(HttpRequest request, byte[] requestBody, HttpResponse<?> response, Throwable error) {
+        StringBuilder log = new StringBuilder();
+        if (error != null) {
+            log.append("Something is wrong with the Response/Could not connect to the environment\n").append(error.getMessage()).append("\n");
+        }
+        log.append("Request method:\t").append(request.method()).append("\n");
+        log.append("Request URI:\t").append(request.uri()).append("\n");
+        if (CONFIG.includes(ExchangeLogConfig.Detail.HEADERS)) {
+            appendHeaders(log, "Headers:\t\t", request.headers());
+        }
+        if (CONFIG.includes(ExchangeLogConfig.Detail.ALL)) {
+            log.append("Body:\n").append(requestBody == null ? "<none>" : CONFIG.formatBody(requestBody)).append("\n");
+        }
+        log.append("\n");
+        if (response != null) {
+            log.append(response.version() == java.net.http.HttpClient.Version.HTTP_2 ? "HTTP/2 " : "HTTP/1.1 ").append(response.statusCode()).append("\n");
+            if (CONFIG.includes(ExchangeLogConfig.Detail.HEADERS)) {
+                for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+                    header.getValue().forEach(value -> log.append(header.getKey()).append(": ").append(value).append("\n"));
+                }
+            }
+            if (CONFIG.includes(ExchangeLogConfig.Detail.ALL)) {
+                log.append("\n").append(response.body() instanceof byte[] ? CONFIG.formatBody((byte[]) response.body()) : "<streamed>").append("\n");
+            }
+        }
+        log.append(MESSAGE_SEPARATOR);
+        return log.toString();
+    }
+
+    private static void appendHeaders(StringBuilder log, String title, HttpHeaders headers) {
+        log.append(title);
+        if (headers.map().isEmpty()) {
+            log.append("<none>\n");
+            return;
+        }
+        boolean first = true;
+        for (Map.Entry<String, List<String>> header : headers.map().entrySet()) {
+            for (String value : header.getValue()) {
+                log.append(first ? "" : "\t\t\t\t").append(header.getKey()).append("=").append(value).append("\n");
+                first = false;
+            }
+        }
+    }
+}
@@ -1,56 +1,144 @@
 package com.companyname.rest.logging;
 
-import com.companyname.config.props.PropertyReader;
-import com.companyname.rest.config.RestConstants;
+import com.companyname.rest.data.UniqueDataGenerator;
 import io.restassured.filter.Filter;
 import io.restassured.filter.FilterContext;
-import io.restassured.filter.log.LogDetail;
-import io.restassured.internal.print.RequestPrinter;
-import io.restassured.internal.print.ResponsePrinter;
+import io.restassured.http.Cookie;
+import io.restassured.http.Header;
 import io.restassured.response.Response;
 import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.CloseableThreadContext;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
-
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.PrintStream;
-
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.message.AsynchronouslyFormattable;
+import org.apache.logging.log4j.message.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Request/Response logging. Every exchange is written as one log event with a correlation id in the log context
+ * ('correlationId', kept if already set by the caller), messages added with {@link #addToLog(String)} are buffered
+ * per thread and written with the next exchange or {@link #logOutput()}.
+ * Nothing is shared between threads, so concurrent requests don't wait for each other or mix their output,
+ * request threads only take the values of the exchange, formatting and writing are handed off to the async appenders of log4j2.xml.
+ * What is logged is set by {@link ExchangeLogConfig}.
+ */
 public class RALogger {
+    public static final String CORRELATION_ID = "correlationId";
     private static final Logger LOG = LogManager.getLogger(RALogger.class);
     private static final String MESSAGE_SEPARATOR = "~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~\n";
-    private static final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    private static final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(StringBuilder::new);
 
     private RALogger() {
     }
 
     public static void addToLog(String logMessage) {
-        try {
-            byteArrayOutputStream.write((logMessage + "\n").getBytes());
-        } catch (IOException e) {
-            e.printStackTrace();
+        buffer.get().append(logMessage).append("\n");
+    }
+
+    /**
+     * Writes messages added by the current thread as one log event.
+     */
+    public static void logOutput() {
+        String pending = takeBuffer();
+        if (!pending.isEmpty()) {
+            log(Level.INFO, new ExchangeMessage(pending, () -> ""));
         }
     }
 
-    public static synchronized void logOutput() {
-        StringBuilder log = new StringBuilder(byteArrayOutputStream.toString());
+    /**
+     * Writes messages added by the current thread followed by the exchange as one log event.
+     *
+     * @param level    Level from {@link ExchangeLogConfig#getLevel(boolean)}, null - only the added messages are written
+     * @param exchange Formats the exchange, it is called by the appender thread, so it may only use immutable data
+     */
+    static void logExchange(Level level, Supplier<String> exchange) {
+        if (level == null) {
+            logOutput();
+            return;
+        }
+        log(level, new ExchangeMessage(takeBuffer(), exchange));
+    }
+
+    static boolean isEnabled(Level level) {
+        return LOG.isEnabled(level);
+    }
+
+    private static void log(Level level, Message message) {
+        String correlationId = ThreadContext.get(CORRELATION_ID);
+        try (CloseableThreadContext.Instance ignored = CloseableThreadContext.put(CORRELATION_ID,
+                correlationId != null ? correlationId : Long.toHexString(UniqueDataGenerator.uniqueId()))) {
+            LOG.log(level, message);
+        }
+    }
 
-        if (log.length() != 0) {
-            for (String line : log.toString().split("\n")) {
-                LOG.info(line.replace("\r", ""));
+    private static String takeBuffer() {
+        StringBuilder pending = buffer.get();
+        String text = pending.toString();
+        pending.setLength(0);
+        return text;
+    }
+
+    /**
+     * Message formatted once, by the async appender thread.
+     */
+    @AsynchronouslyFormattable
+    private static class ExchangeMessage implements Message {
+        private final String pending;
+        private final Supplier<String> exchange;
+        private volatile String formatted;
+
+        private ExchangeMessage(String pending, Supplier<String> exchange) {
+            this.pending = pending;
+            this.exchange = exchange;
+        }
+
+        @Override
+        public String getFormattedMessage() {
+            String result = formatted;
+            if (result == null) {
+                result = (pending + exchange.get()).replace("\r", "");
+                int end = result.length();
+                while (end > 0 && result.charAt(end - 1) == '\n') {
+                    end--;
+                }
+                result = result.substring(0, end);
+                formatted = result;
             }
+            return result;
+        }
+
+        @Override
+        public String getFormat() {
+            return getFormattedMessage();
+        }
+
+        @Override
+        public Object[] getParameters() {
+            return null;
         }
 
-        byteArrayOutputStream.reset();
+        @Override
+        public Throwable getThrowable() {
+            return null;
+        }
     }
 
     public static class LogFilter implements Filter {
+        private static final ExchangeLogConfig CONFIG = ExchangeLogConfig.get();
 
         @Override
         public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
 
             Response response = null;
+            String error = null;
 
             try {
 
@@ -58,28 +146,104 @@ public class RALogger {
                 response = ctx.next(requestSpec, responseSpec);
 
             } catch (Exception e) {
-                addToLog("Something is wrong with the Response/Could not connect to the environment");
-                addToLog(e.getMessage());
+                error = e.getMessage();
                 //throw new RuntimeException("Something is wrong with the Response/Could not connect to the environment");
             } finally {
-                // print the request
-                RequestPrinter.print(requestSpec, requestSpec.getMethod(), requestSpec.getURI(), LogDetail.ALL, requestSpec.getConfig().getLogConfig().blacklistedHeaders(),
-                        new PrintStream(byteArrayOutputStream), PropertyReader.getProperty(RestConstants.Properties.LOG_PRETTY_JSON, true));
-                // add an empty line
-                addToLog("\n");
-                if (response != null) {
-                    // print the response
-                    ResponsePrinter.print(response, response, new PrintStream(byteArrayOutputStream), LogDetail.ALL, PropertyReader.getProperty(RestConstants.Properties.LOG_PRETTY_JSON, true),
-                            requestSpec.getConfig().getLogConfig().blacklistedHeaders());
+                Level level = CONFIG.getLevel(response == null || response.getStatusCode() >= 400);
+                if (level == null) {
+                    logOutput();
+                } else {
+                    // the specification is mutable, so only its values are taken here and formatting is left to the appender thread
+                    Exchange exchange = new Exchange(requestSpec, response, error);
+                    logExchange(level, exchange::format);
                 }
-                // add the message separator
-                addToLog(MESSAGE_SEPARATOR);
-
-                // print the log
-                logOutput();
             }
 
             return response;
         }
+
+        private static byte[] toBytes(Object body) {
+            if (body == null) {
+                return new byte[0];
+            }
+            return body instanceof byte[] ? (byte[]) body : String.valueOf(body).getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Values of the exchange taken by the request thread, parts excluded by {@link ExchangeLogConfig} are not taken.
+         */
+        private static final class Exchange {
+            private final String error;
+            private final String method;
+            private final String uri;
+            private final Set<String> blacklistedHeaders;
+            private final List<Header> requestHeaders;
+            private final List<Cookie> cookies;
+            private final byte[] requestBody;
+            private final String statusLine;
+            private final List<Header> responseHeaders;
+            private final byte[] responseBody;
+
+            private Exchange(FilterableRequestSpecification requestSpec, Response response, String error) {
+                boolean headers = CONFIG.includes(ExchangeLogConfig.Detail.HEADERS);
+                boolean bodies = CONFIG.includes(ExchangeLogConfig.Detail.ALL);
+                this.error = error;
+                this.method = requestSpec.getMethod();
+                this.uri = requestSpec.getURI();
+                this.blacklistedHeaders = requestSpec.getConfig().getLogConfig().blacklistedHeaders();
+                this.requestHeaders = headers ? new ArrayList<>(requestSpec.getHeaders().asList()) : null;
+                this.cookies = headers ? new ArrayList<>(requestSpec.getCookies().asList()) : null;
+                this.requestBody = bodies ? toBytes(requestSpec.getBody()) : null;
+                this.statusLine = response == null ? null : response.getStatusLine();
+                this.responseHeaders = response != null && headers ? new ArrayList<>(response.getHeaders().asList()) : null;
+                this.responseBody = response != null && bodies ? response.asByteArray() : null;
+            }
+
+            private String format() {
+                StringBuilder log = new StringBuilder();
+                if (statusLine == null) {
+                    log.append("Something is wrong with the Response/Could not connect to the environment\n").append(error).append("\n");
+                }
+                log.append("Request method:\t").append(method).append("\n");
+                log.append("Request URI:\t").append(uri).append("\n");
+                if (requestHeaders != null) {
+                    log.append("Headers:\t\t");
+                    appendHeaders(log, requestHeaders, "=", "\t\t\t\t");
+                    log.append("Cookies:\t\t");
+                    if (cookies.isEmpty()) {
+                        log.append("<none>\n");
+                    }
+                    for (int i = 0; i < cookies.size(); i++) {
+                        log.append(i == 0 ? "" : "\t\t\t\t").append(cookies.get(i)).append("\n");
+                    }
+                }
+                if (requestBody != null) {
+                    log.append("Body:\n").append(requestBody.length == 0 ? "<none>" : CONFIG.formatBody(requestBody)).append("\n");
+                }
+                log.append("\n");
+                if (statusLine != null) {
+                    log.append(statusLine).append("\n");
+                    if (responseHeaders != null) {
+                        appendHeaders(log, responseHeaders, ": ", "");
+                    }
+                    if (responseBody != null) {
+                        log.append("\n").append(CONFIG.formatBody(responseBody)).append("\n");
+                    }
+                }
+                log.append(MESSAGE_SEPARATOR);
+                return log.toString();
+            }
+
+            private void appendHeaders(StringBuilder log, List<Header> headers, String separator, String indent) {
+                if (headers.isEmpty() && !indent.isEmpty()) {
+                    log.append("<none>\n");
+                }
+                for (int i = 0; i < headers.size(); i++) {
+                    Header header = headers.get(i);
+                    String value = blacklistedHeaders.contains(header.getName()) ? "[ BLACKLISTED ]" : header.getValue();
+                    log.append(i == 0 ? "" : indent).append(header.getName()).append(separator).append(value).append("\n");
+                }
+            }
+        }
     }
 }
@@ -1,5 +1,6 @@
 package com.companyname.soap;
 
+import com.companyname.config.props.ConfigLoader;
 import com.companyname.config.props.PropertyReader;
 import com.companyname.rest.config.RestConstants;
 import com.companyname.rest.driver.IRequestSpec;
@@ -15,7 +16,7 @@ public class SoapContext {
     }
 
     public IRequestSpec getSpec(String uri, ContentType contentType) {
-        return new RestAssuredRequestSpecImpl().baseUri(uri).contentType(contentType);
+        return ConfigLoader.getClassInstance(IRequestSpec.class, RestAssuredRequestSpecImpl.class, RestConstants.Properties.REST_SPEC_DRIVER).baseUri(uri).contentType(contentType);
     }
 
     public IRequestSpec getSpec(String endpoint) {
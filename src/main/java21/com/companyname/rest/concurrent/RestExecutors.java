@@ -0,0 +1,76 @@
+package com.companyname.rest.concurrent;
+
+import com.companyname.config.props.PropertyReader;
+import com.companyname.rest.config.RestConstants;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors used to run DD scenarios, steps and blocking async requests.
+ * This is the Java 21 version from the multi-release jar, it uses virtual threads when <b>'rest.virtual.threads'</b> is enabled.
+ */
+public final class RestExecutors {
+    private static final boolean VIRTUAL_THREADS = PropertyReader.getProperty(RestConstants.Properties.REST_VIRTUAL_THREADS, false);
+
+    private RestExecutors() {
+    }
+
+    /**
+     * @return 'true' if executors run tasks on virtual threads
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL_THREADS;
+    }
+
+    /**
+     * Executor which starts a thread per task (platform threads are reused while idle).
+     *
+     * @param namePrefix Thread name prefix
+     */
+    public static ExecutorService newTaskExecutor(String namePrefix) {
+        if (VIRTUAL_THREADS) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 1).factory());
+        }
+        return Executors.newCachedThreadPool(daemonThreadFactory(namePrefix));
+    }
+
+    /**
+     * Executor for at most the given number of concurrently running tasks. Callers which need a hard limit with
+     * virtual threads should additionally guard tasks with a semaphore, as virtual executors are unbounded.
+     *
+     * @param namePrefix Thread name prefix
+     * @param threads    Number of threads
+     */
+    public static ExecutorService newFixedExecutor(String namePrefix, int threads) {
+        if (VIRTUAL_THREADS) {
+            return newTaskExecutor(namePrefix);
+        }
+        return Executors.newFixedThreadPool(threads, daemonThreadFactory(namePrefix));
+    }
+
+    /**
+     * Shared executor running blocking requests of {@link com.companyname.rest.driver.IRequestSpec#requestAsync(String, Class)},
+     * at most <b>'rest.async.threads'</b> (16 by default) at a time, created on first use.
+     * With virtual threads every request runs on its own virtual thread.
+     */
+    public static ExecutorService requestExecutor() {
+        return RequestExecutorHolder.EXECUTOR;
+    }
+
+    private static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class RequestExecutorHolder {
+        private static final ExecutorService EXECUTOR = newFixedExecutor("rest-async-",
+                Integer.parseInt(PropertyReader.getProperty(RestConstants.Properties.REST_ASYNC_THREADS, "16")));
+    }
+}
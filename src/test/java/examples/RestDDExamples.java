@@ -1,12 +1,14 @@
 package examples;
 
 import com.companyname.rest.RestDDContext;
+import com.companyname.rest.RestDDRunner;
 import com.companyname.rest.data.RestDDAdapter;
 import com.companyname.rest.driver.IResponse;
 import com.companyname.rest.driver.model.RestDDModel;
 import org.testng.ITestContext;
 import org.testng.annotations.DataProvider;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 
 public class RestDDExamples {
@@ -38,6 +40,16 @@ public class RestDDExamples {
         });
     }
 
+    //  @Test
+    public void exampleParallelRunner() {
+        RestDDAdapter adapter = new RestDDAdapter();
+        LinkedList<RestDDModel> tests = adapter.fromPropertyFiles().getScenarioList();
+        // 'dd.runner.threads' and 'dd.runner.max.per.uri' properties cap the concurrency
+        RestDDRunner.Summary summary = new RestDDRunner().run(tests);
+//            Commented out so dependency is not needed
+//            assertThat(summary.getFailures()).as(summary.toString()).isEmpty();
+    }
+
     @DataProvider(name = "restTestData")
     public Object[] getData(ITestContext testContext) {
         RestDDAdapter adapter = new RestDDAdapter();
@@ -46,4 +58,12 @@ public class RestDDExamples {
         modelArray = tests.toArray(modelArray);
         return modelArray;
     }
+
+    /**
+     * Scenarios are read lazily one by one, use for big suites with @Test(dataProvider = "restTestDataStream")
+     */
+    @DataProvider(name = "restTestDataStream")
+    public Iterator<Object[]> getDataStream(ITestContext testContext) {
+        return new RestDDAdapter().streamPropertyFiles().asDataProvider();
+    }
 }
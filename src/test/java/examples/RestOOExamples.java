@@ -10,7 +10,11 @@ import io.restassured.path.json.JsonPath;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class RestOOExamples {
 
@@ -59,6 +63,22 @@ public class RestOOExamples {
 
     }
 
+    //@Test
+    // Rest Request Examples sending many calls concurrently without a thread per call
+    // (non-blocking with 'rest.spec.driver=com.companyname.rest.driver.impl.HttpClientRequestSpecImpl')
+    public void restServiceAsyncExamples() {
+        RestEndpointWrapper wrapper = new RestEndpointWrapper();
+        Map defaultTD = wrapper.getDefaultTD("rest_example1.json").asMap("TestData1");
+
+        //sending 100 requests at once and waiting for all of them
+        List<CompletableFuture<IResponse>> responses = IntStream.range(0, 100)
+                .mapToObj(i -> wrapper.getResponseAsync(defaultTD))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+
+        responses.forEach(response -> LOG.info("status: " + response.join().getStatusCode()));
+    }
+
     public class RestEndpointWrapper implements RestTestDataContext {
         RestContext restContext = new RestContext();
 
@@ -75,6 +95,10 @@ public class RestOOExamples {
             return restServiceSpec().queryParams(testData).contentType(CONTENT_TYPE).request(HttpMethod.POST, Map.class);
         }
 
+        public CompletableFuture<IResponse> getResponseAsync(Map testData) {
+            return restServiceSpec().queryParams(testData).contentType(CONTENT_TYPE).requestAsync(HttpMethod.POST, Map.class);
+        }
+
     }
 
 